@@ -0,0 +1,69 @@
+package dev.zazadom.jutils.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.Temporal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Settimane dell'anno e formattazione dei date-time, chiamate singole.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CalendarBenchmark {
+
+    private Temporal date;
+    private LocalDateTime dateTime;
+    private long epochSecond;
+    private char[] buffer;
+    private int week;
+    private int year;
+
+    @Setup
+    public void setup() {
+        date = LocalDate.of(2021, 1, 1);
+        dateTime = LocalDateTime.of(2024, 5, 17, 13, 45, 12);
+        epochSecond = dateTime.toEpochSecond(ZoneOffset.UTC);
+        buffer = new char[32];
+        week = 23;
+        year = 2024;
+    }
+
+    @Benchmark
+    public int getWeekOfYear() throws Throwable {
+        return (int) Library.GET_WEEK_OF_YEAR.invokeExact(date);
+    }
+
+    @Benchmark
+    public LocalDate getMondayByWeekOfYear() throws Throwable {
+        return (LocalDate) Library.GET_MONDAY_BY_WEEK_OF_YEAR.invokeExact(week, year);
+    }
+
+    @Benchmark
+    public String defaultFormatter() throws Throwable {
+        return ((DateTimeFormatter) Library.GET_DEFAULT_DATE_TIME_FORMATTER.invokeExact()).format(dateTime);
+    }
+
+    @Benchmark
+    public int defaultCodec() throws Throwable {
+        return (int) Library.CODEC_FORMAT.invokeExact(epochSecond, buffer, 0);
+    }
+
+}
@@ -0,0 +1,76 @@
+package dev.zazadom.jutils.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiPredicate;
+
+/**
+ * Intersezione con un periodo: stream con {@code getPredicateDatesInPeriod} su entità con {@link LocalDate} contro il
+ * filtro a bitmask sulle colonne di giorni dall'epoch.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ColumnFilterBenchmark {
+
+    private static final int OPEN_END = Integer.MAX_VALUE;
+
+    @Param({"10000", "1000000"})
+    public int size;
+
+    private List<Library.Period> periods;
+    private int[] starts;
+    private int[] ends;
+    private LocalDate startPeriod;
+    private LocalDate endPeriod;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        periods = new ArrayList<>(size);
+        starts = new int[size];
+        ends = new int[size];
+        LocalDate origin = LocalDate.of(2000, 1, 1);
+        for (int i = 0; i < size; i++) {
+            LocalDate start = origin.plusDays(random.nextInt(7300));
+            LocalDate end = random.nextInt(10) == 0 ? null : start.plusDays(random.nextInt(365));
+            periods.add(Library.Period.of(start, end));
+            starts[i] = (int) start.toEpochDay();
+            ends[i] = end == null ? OPEN_END : (int) end.toEpochDay();
+        }
+        startPeriod = origin.plusDays(3650);
+        endPeriod = startPeriod.plusDays(90);
+    }
+
+    @Benchmark
+    @SuppressWarnings("unchecked")
+    public long streamPredicate() throws Throwable {
+        var inPeriod = (BiPredicate<LocalDate, LocalDate>) Library.GET_PREDICATE_DATES_IN_PERIOD.invokeExact(startPeriod, endPeriod);
+        return periods.stream().filter(p -> inPeriod.test(p.start(), p.end())).count();
+    }
+
+    @Benchmark
+    public int columnMask() throws Throwable {
+        var mask = (long[]) Library.COLUMNS_IN_PERIOD.invokeExact(starts, ends, (int) startPeriod.toEpochDay(), (int) endPeriod.toEpochDay());
+        return (int) Library.COLUMNS_COUNT.invokeExact(mask);
+    }
+
+}
@@ -0,0 +1,56 @@
+package dev.zazadom.jutils.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.NavigableSet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Creazione di insiemi di date su intervalli di lunghezza diversa, con una ricerca sul risultato.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DateRangeBenchmark {
+
+    @Param({"7", "365", "3650"})
+    public int days;
+
+    private LocalDate start;
+    private LocalDate end;
+    private LocalDate probe;
+
+    @Setup
+    public void setup() {
+        start = LocalDate.of(2020, 1, 1);
+        end = start.plusDays(days - 1L);
+        probe = start.plusDays(days / 2);
+    }
+
+    @Benchmark
+    public boolean createSetDates() throws Throwable {
+        var dates = (NavigableSet<?>) Library.CREATE_SET_DATES.invokeExact(start, end);
+        return dates.contains(probe);
+    }
+
+    @Benchmark
+    public boolean createRangeDates() throws Throwable {
+        var dates = (NavigableSet<?>) Library.CREATE_RANGE_DATES.invokeExact(start, end);
+        return dates.contains(probe);
+    }
+
+}
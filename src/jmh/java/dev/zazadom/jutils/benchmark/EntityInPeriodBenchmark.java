@@ -0,0 +1,76 @@
+package dev.zazadom.jutils.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Filtro per periodo su una collezione di entità: stream con {@code entityInPeriod} contro query su un indice già costruito.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EntityInPeriodBenchmark {
+
+    private static final Function<Library.Period, LocalDate> START = Library.Period::start;
+    private static final Function<Library.Period, LocalDate> END = Library.Period::end;
+
+    @Param({"10000", "200000"})
+    public int size;
+
+    @Param({"7", "90"})
+    public int periodDays;
+
+    private Collection<Library.Period> periods;
+    private Object index;
+    private LocalDate startPeriod;
+    private LocalDate endPeriod;
+
+    @Setup
+    public void setup() throws Throwable {
+        Random random = new Random(42);
+        List<Library.Period> list = new ArrayList<>(size);
+        LocalDate origin = LocalDate.of(2000, 1, 1);
+        for (int i = 0; i < size; i++) {
+            LocalDate start = origin.plusDays(random.nextInt(7300));
+            list.add(Library.Period.of(start, random.nextInt(10) == 0 ? null : start.plusDays(random.nextInt(365))));
+        }
+        periods = list;
+        index = Library.PERIOD_INDEX_OF_DATES.invokeExact(periods, START, END);
+        startPeriod = origin.plusDays(3650);
+        endPeriod = startPeriod.plusDays(periodDays);
+    }
+
+    @Benchmark
+    @SuppressWarnings("unchecked")
+    public List<Library.Period> streamFilter() throws Throwable {
+        var inPeriod = (Predicate<Library.Period>) Library.ENTITY_IN_PERIOD.invokeExact(startPeriod, endPeriod, START, END);
+        return periods.stream().filter(inPeriod).toList();
+    }
+
+    @Benchmark
+    public List<?> periodIndexQuery() throws Throwable {
+        return (List<?>) Library.PERIOD_INDEX_QUERY.invokeExact(index, startPeriod, endPeriod);
+    }
+
+}
@@ -0,0 +1,105 @@
+package dev.zazadom.jutils.benchmark;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.Temporal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.function.BiPredicate;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Accesso alle classi della libreria dai benchmark. JMH non accetta benchmark nel package di default e da un package con nome
+ * non si possono importare le classi del package di default, quindi i metodi vengono risolti una volta sola come
+ * {@link MethodHandle} statici e costanti, che il JIT compila come chiamate dirette.
+ */
+final class Library {
+
+    static final MethodHandle CREATE_SET_DATES;
+    static final MethodHandle CREATE_RANGE_DATES;
+    static final MethodHandle CHECK_OVERLAP_DATES;
+    static final MethodHandle CHECK_OVERLAP_DATE_TIMES;
+    static final MethodHandle ENTITY_IN_PERIOD;
+    static final MethodHandle PERIOD_INDEX_OF_DATES;
+    static final MethodHandle PERIOD_INDEX_QUERY;
+    static final MethodHandle GET_SUB_MAP;
+    static final MethodHandle HAVE_ELEMENT_IN_COMMON;
+    static final MethodHandle GET_WEEK_OF_YEAR;
+    static final MethodHandle GET_MONDAY_BY_WEEK_OF_YEAR;
+    static final MethodHandle GET_DEFAULT_DATE_TIME_FORMATTER;
+    static final MethodHandle CODEC_FORMAT;
+    static final MethodHandle GET_PREDICATE_DATES_IN_PERIOD;
+    static final MethodHandle COLUMNS_IN_PERIOD;
+    static final MethodHandle COLUMNS_COUNT;
+
+    static {
+        try {
+            Class<?> dateUtility = Class.forName("DateUtility");
+            Class<?> utility = Class.forName("Utility");
+            Class<?> periodIndex = Class.forName("PeriodIndex");
+            Class<?> localDateRange = Class.forName("LocalDateRange");
+            Class<?> codec = Class.forName("DefaultDateTimeCodec");
+            Class<?> columns = Class.forName("EpochDateColumns");
+            MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+            CREATE_SET_DATES = lookup.findStatic(dateUtility, "createSetDates",
+                    MethodType.methodType(NavigableSet.class, LocalDate.class, LocalDate.class));
+            CREATE_RANGE_DATES = lookup.findStatic(dateUtility, "createRangeDates",
+                            MethodType.methodType(localDateRange, LocalDate.class, LocalDate.class))
+                    .asType(MethodType.methodType(NavigableSet.class, LocalDate.class, LocalDate.class));
+            CHECK_OVERLAP_DATES = lookup.findStatic(dateUtility, "checkOverlapDates",
+                    MethodType.methodType(void.class, Collection.class, Function.class, Function.class, Supplier.class));
+            CHECK_OVERLAP_DATE_TIMES = lookup.findStatic(dateUtility, "checkOverlapDateTimes",
+                    MethodType.methodType(void.class, Collection.class, Function.class, Function.class, Supplier.class));
+            ENTITY_IN_PERIOD = lookup.findStatic(dateUtility, "entityInPeriod",
+                    MethodType.methodType(Predicate.class, LocalDate.class, LocalDate.class, Function.class, Function.class));
+            PERIOD_INDEX_OF_DATES = lookup.findStatic(periodIndex, "ofDates",
+                            MethodType.methodType(periodIndex, Collection.class, Function.class, Function.class))
+                    .asType(MethodType.methodType(Object.class, Collection.class, Function.class, Function.class));
+            PERIOD_INDEX_QUERY = lookup.findVirtual(periodIndex, "query",
+                            MethodType.methodType(List.class, Comparable.class, Comparable.class))
+                    .asType(MethodType.methodType(List.class, Object.class, LocalDate.class, LocalDate.class));
+            GET_SUB_MAP = lookup.findStatic(utility, "getSubMap",
+                    MethodType.methodType(Map.class, Collection.class, Map.class));
+            HAVE_ELEMENT_IN_COMMON = lookup.findStatic(utility, "haveAtLeastOneElementInCommon",
+                    MethodType.methodType(boolean.class, Collection.class, Collection.class));
+            GET_WEEK_OF_YEAR = lookup.findStatic(dateUtility, "getWeekOfYear",
+                    MethodType.methodType(int.class, Temporal.class));
+            GET_MONDAY_BY_WEEK_OF_YEAR = lookup.findStatic(dateUtility, "getMondayByWeekOfYear",
+                    MethodType.methodType(LocalDate.class, int.class, int.class));
+            GET_DEFAULT_DATE_TIME_FORMATTER = lookup.findStatic(dateUtility, "getDefaultDateTimeFormatter",
+                    MethodType.methodType(DateTimeFormatter.class));
+            CODEC_FORMAT = lookup.findStatic(codec, "format",
+                    MethodType.methodType(int.class, long.class, char[].class, int.class));
+            GET_PREDICATE_DATES_IN_PERIOD = lookup.findStatic(dateUtility, "getPredicateDatesInPeriod",
+                    MethodType.methodType(BiPredicate.class, LocalDate.class, LocalDate.class));
+            COLUMNS_IN_PERIOD = lookup.findStatic(columns, "inPeriod",
+                    MethodType.methodType(long[].class, int[].class, int[].class, int.class, int.class));
+            COLUMNS_COUNT = lookup.findStatic(columns, "count",
+                    MethodType.methodType(int.class, long[].class));
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private Library() {
+    }
+
+    /**
+     * Periodo di prova con inizio e fine, sia come date sia come date-time
+     */
+    record Period(LocalDate start, LocalDate end, LocalDateTime startTime, LocalDateTime endTime) {
+
+        static Period of(LocalDate start, LocalDate end) {
+            return new Period(start, end, start.atTime(8, 0), end == null ? null : end.atTime(18, 0));
+        }
+    }
+
+}
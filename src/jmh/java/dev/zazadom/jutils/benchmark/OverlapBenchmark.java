@@ -0,0 +1,70 @@
+package dev.zazadom.jutils.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Controllo delle sovrapposizioni su periodi consecutivi senza conflitti, in ordine casuale: è il caso peggiore, perché
+ * la collezione viene scorsa per intero.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class OverlapBenchmark {
+
+    private static final Function<Library.Period, LocalDate> START = Library.Period::start;
+    private static final Function<Library.Period, LocalDate> END = Library.Period::end;
+    private static final Function<Library.Period, LocalDateTime> START_TIME = Library.Period::startTime;
+    private static final Function<Library.Period, LocalDateTime> END_TIME = Library.Period::endTime;
+    private static final Supplier<IllegalStateException> EXCEPTION = IllegalStateException::new;
+
+    @Param({"1000", "100000", "1000000"})
+    public int size;
+
+    private Collection<Library.Period> periods;
+
+    @Setup
+    public void setup() {
+        List<Library.Period> shuffled = new ArrayList<>(size);
+        LocalDate start = LocalDate.of(1900, 1, 1);
+        for (int i = 0; i < size; i++) {
+            shuffled.add(Library.Period.of(start.plusDays(i * 2L), start.plusDays(i * 2L + 1)));
+        }
+        Collections.shuffle(shuffled, new Random(42));
+        periods = shuffled;
+    }
+
+    @Benchmark
+    public void checkOverlapDates() throws Throwable {
+        Library.CHECK_OVERLAP_DATES.invokeExact(periods, START, END, EXCEPTION);
+    }
+
+    @Benchmark
+    public void checkOverlapDateTimes() throws Throwable {
+        Library.CHECK_OVERLAP_DATE_TIMES.invokeExact(periods, START_TIME, END_TIME, EXCEPTION);
+    }
+
+}
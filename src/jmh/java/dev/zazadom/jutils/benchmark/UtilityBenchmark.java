@@ -0,0 +1,77 @@
+package dev.zazadom.jutils.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sottomappe per poche chiavi su mappe grandi e intersezioni tra liste disgiunte, il caso peggiore per la ricerca.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class UtilityBenchmark {
+
+    @Param({"100000", "1000000"})
+    public int mapSize;
+
+    @Param({"100", "1000"})
+    public int keys;
+
+    private Map<Integer, String> map;
+    private Collection<Integer> subMapKeys;
+    private Collection<Integer> left;
+    private Collection<Integer> right;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        map = new HashMap<>();
+        for (int i = 0; i < mapSize; i++) {
+            map.put(i, "v" + i);
+        }
+        List<Integer> keyList = new ArrayList<>(keys);
+        for (int i = 0; i < keys; i++) {
+            keyList.add(random.nextInt(mapSize));
+        }
+        subMapKeys = keyList;
+        List<Integer> even = new ArrayList<>(keys * 10);
+        List<Integer> odd = new ArrayList<>(keys * 10);
+        for (int i = 0; i < keys * 10; i++) {
+            even.add(random.nextInt(mapSize) * 2);
+            odd.add(random.nextInt(mapSize) * 2 + 1);
+        }
+        left = even;
+        right = odd;
+    }
+
+    @Benchmark
+    public Map<?, ?> getSubMap() throws Throwable {
+        return (Map<?, ?>) Library.GET_SUB_MAP.invokeExact(subMapKeys, map);
+    }
+
+    @Benchmark
+    public boolean haveAtLeastOneElementInCommon() throws Throwable {
+        return (boolean) Library.HAVE_ELEMENT_IN_COMMON.invokeExact(left, right);
+    }
+
+}
@@ -0,0 +1,313 @@
+import jakarta.validation.constraints.NotNull;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.MonthDay;
+import java.time.YearMonth;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Calendario dei giorni lavorativi per un intervallo di anni: sono esclusi sabato, domenica, le festività nazionali
+ * italiane, compreso il lunedì dell'Angelo, e le eventuali festività aggiuntive.
+ * <br>
+ * Le festività nazionali sono quelle in vigore dal 2001, anno in cui il 2 giugno è tornato festivo, più il 4 ottobre (San
+ * Francesco d'Assisi), festivo dal 2026; per gli anni precedenti al 2001 il calendario non tiene conto delle festività
+ * abolite o non ancora istituite, come il 6 gennaio tra il 1977 e il 1985.
+ * <br>
+ * I giorni sono un bitset di un bit per giorno con la somma prefissa dei giorni lavorativi ogni 64 giorni: il conteggio
+ * tra due date costa O(1), l'aggiunta di giorni lavorativi una ricerca binaria sulle somme.
+ * <pre>
+ *     {@code long lavorativi = BusinessCalendar.getDefault().workingDaysBetween(inizio, fine);}
+ *     {@code LocalDate scadenza = BusinessCalendar.getDefault().addWorkingDays(oggi, 30);}
+ * </pre>
+ */
+public final class BusinessCalendar {
+
+    private static final List<Holiday> ITALIAN_HOLIDAYS = List.of(
+            Holiday.of(1, 1),
+            Holiday.of(1, 6),
+            Holiday.of(4, 25),
+            Holiday.of(5, 1),
+            Holiday.of(6, 2),
+            Holiday.of(8, 15),
+            Holiday.since(2026, 10, 4),
+            Holiday.of(11, 1),
+            Holiday.of(12, 8),
+            Holiday.of(12, 25),
+            Holiday.of(12, 26));
+
+    private final int firstYear;
+    private final int lastYear;
+    private final long firstEpochDay;
+    private final int days;
+    private final long[] words;
+    private final int[] prefix;
+
+    private BusinessCalendar(int firstYear, int lastYear, Collection<MonthDay> recurringHolidays, Collection<LocalDate> holidays) {
+        if (firstYear > lastYear) {
+            throw new IllegalArgumentException("Last year must be greater or equal first year.");
+        }
+        this.firstYear = firstYear;
+        this.lastYear = lastYear;
+        this.firstEpochDay = LocalDate.of(firstYear, 1, 1).toEpochDay();
+        this.days = (int) (LocalDate.of(lastYear + 1, 1, 1).toEpochDay() - firstEpochDay);
+        this.words = new long[(days + 63) >>> 6];
+        for (int i = 0; i < days; i++) {
+            // il giorno 0 dell'epoch (1970-01-01) è un giovedì
+            int dayOfWeek = Math.floorMod(firstEpochDay + i + 3, 7) + 1;
+            if (dayOfWeek < DayOfWeek.SATURDAY.getValue()) {
+                words[i >>> 6] |= 1L << i;
+            }
+        }
+        for (int year = firstYear; year <= lastYear; year++) {
+            for (var holiday : ITALIAN_HOLIDAYS) {
+                if (year >= holiday.firstYear()) {
+                    clear(holiday.day().atYear(year));
+                }
+            }
+            for (var holiday : recurringHolidays) {
+                // MonthDay.atYear riporterebbe il 29 febbraio al 28 negli anni non bisestili
+                if (holiday.isValidYear(year)) {
+                    clear(holiday.atYear(year));
+                }
+            }
+            clear(easterSunday(year).plusDays(1));
+        }
+        for (var holiday : holidays) {
+            if (covers(holiday)) {
+                clear(holiday);
+            }
+        }
+        this.prefix = new int[words.length + 1];
+        for (int w = 0; w < words.length; w++) {
+            prefix[w + 1] = prefix[w] + Long.bitCount(words[w]);
+        }
+    }
+
+    /**
+     * Costruisce il calendario italiano per un intervallo di anni, estremi inclusi.
+     *
+     * @param firstYear primo anno
+     * @param lastYear  ultimo anno
+     * @return calendario
+     */
+    public static BusinessCalendar italian(int firstYear, int lastYear) {
+        return new BusinessCalendar(firstYear, lastYear, List.of(), List.of());
+    }
+
+    /**
+     * Costruisce il calendario italiano per un intervallo di anni, estremi inclusi, con festività aggiuntive, ad esempio il
+     * santo patrono o le chiusure aziendali.
+     *
+     * @param firstYear         primo anno
+     * @param lastYear          ultimo anno
+     * @param recurringHolidays festività ripetute ogni anno, non null
+     * @param holidays          festività di un solo anno, non null; quelle fuori dall'intervallo sono ignorate
+     * @return calendario
+     */
+    public static BusinessCalendar italian(int firstYear, int lastYear,
+                                           @NotNull Collection<MonthDay> recurringHolidays,
+                                           @NotNull Collection<LocalDate> holidays) {
+        return new BusinessCalendar(firstYear, lastYear, recurringHolidays, holidays);
+    }
+
+    /**
+     * Restituisce il calendario italiano condiviso, senza festività aggiuntive, che copre gli anni dal 2001 al 2199, quelli
+     * in cui valgono le festività nazionali attuali, ognuna dall'anno in cui è stata istituita. È costruito al primo utilizzo.
+     *
+     * @return calendario di default
+     */
+    public static BusinessCalendar getDefault() {
+        return DefaultHolder.INSTANCE;
+    }
+
+    /**
+     * @param date data, non null
+     * @return vero se la data è coperta dal calendario, falso altrimenti
+     */
+    public boolean covers(@NotNull LocalDate date) {
+        return date.getYear() >= firstYear && date.getYear() <= lastYear;
+    }
+
+    /**
+     * @param date data, coperta dal calendario
+     * @return vero se la data è un giorno lavorativo, falso altrimenti
+     */
+    public boolean isWorkingDay(@NotNull LocalDate date) {
+        int index = index(date);
+        return (words[index >>> 6] & 1L << index) != 0;
+    }
+
+    /**
+     * Conta i giorni lavorativi di un periodo, estremi inclusi.
+     *
+     * @param start inizio periodo, coperto dal calendario
+     * @param end   fine periodo, coperta dal calendario
+     * @return giorni lavorativi
+     */
+    public int workingDaysBetween(@NotNull LocalDate start, @NotNull LocalDate end) {
+        if (start.isAfter(end))
+            throw new IllegalArgumentException("End period must be greater or equal start period.");
+        return countBefore(index(end) + 1) - countBefore(index(start));
+    }
+
+    /**
+     * Conta i giorni lavorativi di un mese, con gli estremi di {@link DateUtility#getFirstDayOfMonth(int, int)} e
+     * {@link DateUtility#getLastDayOfMonth(int, int)}.
+     *
+     * @param month mese, da 1 a 12
+     * @param year  anno, coperto dal calendario
+     * @return giorni lavorativi
+     */
+    public int workingDaysInMonth(int month, int year) {
+        return workingDaysBetween(DateUtility.getFirstDayOfMonth(month, year), DateUtility.getLastDayOfMonth(month, year));
+    }
+
+    /**
+     * @param yearMonth mese, coperto dal calendario
+     * @return giorni lavorativi del mese
+     */
+    public int workingDaysInMonth(@NotNull YearMonth yearMonth) {
+        return workingDaysInMonth(yearMonth.getMonthValue(), yearMonth.getYear());
+    }
+
+    /**
+     * Sposta una data di un numero di giorni lavorativi; la data di partenza non è contata.
+     *
+     * @param date data di partenza, coperta dal calendario
+     * @param days giorni lavorativi da aggiungere, negativi per tornare indietro
+     * @return data risultante, la data di partenza se days è 0
+     */
+    public LocalDate addWorkingDays(@NotNull LocalDate date, int days) {
+        if (days == 0) {
+            return date;
+        }
+        int index = index(date);
+        long rank = days > 0 ? countBefore(index + 1) + (long) days - 1 : countBefore(index) + (long) days;
+        if (rank < 0 || rank >= prefix[words.length])
+            throw new IllegalArgumentException("Result out of the business calendar.");
+        return LocalDate.ofEpochDay(firstEpochDay + select((int) rank));
+    }
+
+    /**
+     * @param date data, coperta dal calendario
+     * @return primo giorno lavorativo successivo alla data
+     */
+    public LocalDate nextWorkingDay(@NotNull LocalDate date) {
+        return addWorkingDays(date, 1);
+    }
+
+    /**
+     * @param date data, coperta dal calendario
+     * @return ultimo giorno lavorativo precedente la data
+     */
+    public LocalDate previousWorkingDay(@NotNull LocalDate date) {
+        return addWorkingDays(date, -1);
+    }
+
+    /**
+     * @param month mese, da 1 a 12
+     * @param year  anno, coperto dal calendario
+     * @return primo giorno lavorativo del mese, a partire da {@link DateUtility#getFirstDayOfMonth(int, int)}
+     */
+    public LocalDate firstWorkingDayOfMonth(int month, int year) {
+        var first = DateUtility.getFirstDayOfMonth(month, year);
+        return isWorkingDay(first) ? first : nextWorkingDay(first);
+    }
+
+    /**
+     * @param month mese, da 1 a 12
+     * @param year  anno, coperto dal calendario
+     * @return ultimo giorno lavorativo del mese, a partire da {@link DateUtility#getLastDayOfMonth(int, int)}
+     */
+    public LocalDate lastWorkingDayOfMonth(int month, int year) {
+        var last = DateUtility.getLastDayOfMonth(month, year);
+        return isWorkingDay(last) ? last : previousWorkingDay(last);
+    }
+
+    /**
+     * Calcola la domenica di Pasqua del calendario gregoriano, con l'algoritmo di Meeus/Jones/Butcher.
+     *
+     * @param year anno
+     * @return domenica di Pasqua
+     */
+    public static LocalDate easterSunday(int year) {
+        int a = year % 19;
+        int b = year / 100;
+        int c = year % 100;
+        int d = b / 4;
+        int e = b % 4;
+        int f = (b + 8) / 25;
+        int g = (b - f + 1) / 3;
+        int h = (19 * a + b - d - g + 15) % 30;
+        int i = c / 4;
+        int k = c % 4;
+        int l = (32 + 2 * e + 2 * i - h - k) % 7;
+        int m = (a + 11 * h + 22 * l) / 451;
+        int month = (h + l - 7 * m + 114) / 31;
+        int day = (h + l - 7 * m + 114) % 31 + 1;
+        return LocalDate.of(year, month, day);
+    }
+
+    private void clear(LocalDate date) {
+        int index = (int) (date.toEpochDay() - firstEpochDay);
+        words[index >>> 6] &= ~(1L << index);
+    }
+
+    private int index(LocalDate date) {
+        if (!covers(date)) {
+            throw new IllegalArgumentException("Day out of the business calendar: " + date);
+        }
+        return (int) (date.toEpochDay() - firstEpochDay);
+    }
+
+    /**
+     * @return giorni lavorativi con indice minore di index
+     */
+    private int countBefore(int index) {
+        int word = index >>> 6;
+        int bit = index & 63;
+        return bit == 0 ? prefix[word] : prefix[word] + Long.bitCount(words[word] & ((1L << bit) - 1));
+    }
+
+    /**
+     * @return indice del giorno lavorativo di posizione rank, partendo da 0
+     */
+    private int select(int rank) {
+        int lo = 0;
+        int hi = words.length - 1;
+        while (lo < hi) {
+            int mid = (lo + hi + 1) >>> 1;
+            if (prefix[mid] <= rank) {
+                lo = mid;
+            } else {
+                hi = mid - 1;
+            }
+        }
+        long word = words[lo];
+        for (int skip = rank - prefix[lo]; skip > 0; skip--) {
+            word &= word - 1;
+        }
+        return (lo << 6) + Long.numberOfTrailingZeros(word);
+    }
+
+    private static final class DefaultHolder {
+        private static final BusinessCalendar INSTANCE = italian(2001, 2199);
+    }
+
+    /**
+     * Festività nazionale ripetuta ogni anno a partire da firstYear
+     */
+    private record Holiday(MonthDay day, int firstYear) {
+
+        private static Holiday of(int month, int dayOfMonth) {
+            return new Holiday(MonthDay.of(month, dayOfMonth), Integer.MIN_VALUE);
+        }
+
+        private static Holiday since(int firstYear, int month, int dayOfMonth) {
+            return new Holiday(MonthDay.of(month, dayOfMonth), firstYear);
+        }
+    }
+
+}
@@ -0,0 +1,183 @@
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.WeekFields;
+import java.util.Locale;
+
+/**
+ * Tabella precalcolata del calendario italiano per un intervallo di anni: lunedì della prima settimana di ogni anno,
+ * primo giorno di ogni mese e settimana dell'anno di ogni giorno. Le settimane seguono {@link WeekFields#of(Locale)} con
+ * {@link Locale#ITALY}: iniziano di lunedì e la prima settimana è quella che contiene il 4 gennaio.
+ * <br>
+ * I giorni che cadono prima della prima settimana appartengono all'ultima settimana dell'anno precedente, che può essere
+ * la 52 o la 53.
+ */
+public final class CalendarTable {
+
+    private static final CalendarTable DEFAULT = new CalendarTable(1900, 2199);
+
+    private final int firstYear;
+    private final int lastYear;
+    private final long firstEpochDay;
+    private final long[] mondaysOfFirstWeek;
+    private final long[] firstDaysOfMonth;
+    private final YearMonth[] yearMonths;
+    private final byte[] weeksOfYear;
+
+    private CalendarTable(int firstYear, int lastYear) {
+        if (firstYear > lastYear) {
+            throw new IllegalArgumentException("Last year must be greater or equal first year.");
+        }
+        this.firstYear = firstYear;
+        this.lastYear = lastYear;
+        int years = lastYear - firstYear + 1;
+        // un anno in più ai bordi, per le settimane che attraversano il capodanno
+        this.mondaysOfFirstWeek = new long[years + 2];
+        for (int i = 0; i < mondaysOfFirstWeek.length; i++) {
+            mondaysOfFirstWeek[i] = computeMondayOfFirstWeek(firstYear - 1 + i);
+        }
+        this.firstDaysOfMonth = new long[years * 12 + 1];
+        this.yearMonths = new YearMonth[years * 12];
+        for (int i = 0; i < yearMonths.length; i++) {
+            yearMonths[i] = YearMonth.of(firstYear + i / 12, i % 12 + 1);
+            firstDaysOfMonth[i] = yearMonths[i].atDay(1).toEpochDay();
+        }
+        firstDaysOfMonth[yearMonths.length] = LocalDate.of(lastYear + 1, 1, 1).toEpochDay();
+        this.firstEpochDay = firstDaysOfMonth[0];
+        this.weeksOfYear = new byte[(int) (firstDaysOfMonth[yearMonths.length] - firstEpochDay)];
+        int yearIndex = 1;
+        for (int i = 0; i < weeksOfYear.length; i++) {
+            long epochDay = firstEpochDay + i;
+            if (epochDay >= firstDaysOfMonth[yearIndex * 12]) {
+                yearIndex++;
+            }
+            long monday = mondaysOfFirstWeek[yearIndex];
+            weeksOfYear[i] = (byte) (epochDay >= monday
+                    ? (epochDay - monday) / 7 + 1
+                    : (epochDay - mondaysOfFirstWeek[yearIndex - 1]) / 7 + 1);
+        }
+    }
+
+    /**
+     * Costruisce la tabella per un intervallo di anni, estremi inclusi.
+     *
+     * @param firstYear primo anno
+     * @param lastYear  ultimo anno
+     * @return tabella
+     */
+    public static CalendarTable of(int firstYear, int lastYear) {
+        return new CalendarTable(firstYear, lastYear);
+    }
+
+    /**
+     * Restituisce la tabella condivisa, che copre gli anni dal 1900 al 2199.
+     *
+     * @return tabella di default
+     */
+    public static CalendarTable getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * @param year anno
+     * @return vero se l'anno è coperto dalla tabella, falso altrimenti
+     */
+    public boolean covers(int year) {
+        return year >= firstYear && year <= lastYear;
+    }
+
+    /**
+     * @param epochDay giorno dall'epoch
+     * @return vero se il giorno è coperto dalla tabella, falso altrimenti
+     */
+    public boolean covers(long epochDay) {
+        return epochDay >= firstEpochDay && epochDay - firstEpochDay < weeksOfYear.length;
+    }
+
+    /**
+     * Restituisce la settimana dell'anno di un giorno; i giorni prima della prima settimana appartengono all'ultima settimana
+     * dell'anno precedente.
+     *
+     * @param epochDay giorno dall'epoch, coperto dalla tabella
+     * @return settimana dell'anno, da 1 a 53
+     */
+    public int weekOfYear(long epochDay) {
+        if (!covers(epochDay)) {
+            throw new IllegalArgumentException("Day out of the calendar table: " + epochDay);
+        }
+        return weeksOfYear[(int) (epochDay - firstEpochDay)];
+    }
+
+    /**
+     * Restituisce il lunedì di una settimana dell'anno. Come {@link WeekFields#weekOfYear()}, accetta anche la settimana 0
+     * e le settimane oltre l'ultima, contando a passi di sette giorni dalla prima.
+     *
+     * @param week settimana dell'anno, da 0 a 54
+     * @param year anno, coperto dalla tabella
+     * @return giorno dall'epoch del lunedì
+     */
+    public long mondayOfWeek(int week, int year) {
+        if (week < 0 || week > 54) {
+            throw new IllegalArgumentException("Week of year must be between 0 and 54.");
+        }
+        return mondaysOfFirstWeek[yearIndex(year) + 1] + (week - 1) * 7L;
+    }
+
+    /**
+     * Restituisce la domenica di una settimana dell'anno.
+     *
+     * @param week settimana dell'anno, da 0 a 54
+     * @param year anno, coperto dalla tabella
+     * @return giorno dall'epoch della domenica
+     */
+    public long sundayOfWeek(int week, int year) {
+        return mondayOfWeek(week, year) + 6;
+    }
+
+    /**
+     * @param month mese, da 1 a 12
+     * @param year  anno, coperto dalla tabella
+     * @return giorno dall'epoch del primo giorno del mese
+     */
+    public long firstDayOfMonth(int month, int year) {
+        return firstDaysOfMonth[monthIndex(month, year)];
+    }
+
+    /**
+     * @param month mese, da 1 a 12
+     * @param year  anno, coperto dalla tabella
+     * @return giorno dall'epoch dell'ultimo giorno del mese
+     */
+    public long lastDayOfMonth(int month, int year) {
+        return firstDaysOfMonth[monthIndex(month, year) + 1] - 1;
+    }
+
+    /**
+     * @param month mese, da 1 a 12
+     * @param year  anno, coperto dalla tabella
+     * @return oggetto mese anno, condiviso
+     */
+    public YearMonth yearMonth(int month, int year) {
+        return yearMonths[monthIndex(month, year)];
+    }
+
+    private int yearIndex(int year) {
+        if (!covers(year)) {
+            throw new IllegalArgumentException("Year out of the calendar table: " + year);
+        }
+        return year - firstYear;
+    }
+
+    private int monthIndex(int month, int year) {
+        if (month < 1 || month > 12) {
+            throw new IllegalArgumentException("Month must be between 1 and 12.");
+        }
+        return yearIndex(year) * 12 + month - 1;
+    }
+
+    private static long computeMondayOfFirstWeek(int year) {
+        long fourthOfJanuary = LocalDate.of(year, 1, 4).toEpochDay();
+        // il giorno 0 dell'epoch (1970-01-01) è un giovedì
+        return fourthOfJanuary - Math.floorMod(fourthOfJanuary + 3, 7);
+    }
+
+}
@@ -0,0 +1,254 @@
+import jakarta.validation.constraints.NotNull;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sorgente dell'ora corrente usata da {@link DateUtility#now()} e {@link DateUtility#today()}, sostituibile con
+ * {@link DateUtility#setClockProvider(ClockProvider)}.
+ * <ul>
+ *     <li>{@link #precise(ZoneId)} legge l'orologio di sistema a ogni chiamata;</li>
+ *     <li>{@link #coarse(ZoneId, Duration)} restituisce valori in cache, aggiornati da un thread daemon alla risoluzione indicata;</li>
+ *     <li>{@link #fixed(LocalDateTime, ZoneId)} e {@link #manual(LocalDateTime, ZoneId)} servono nei test.</li>
+ * </ul>
+ */
+public abstract class ClockProvider {
+
+    private final ZoneId zone;
+
+    private ClockProvider(ZoneId zone) {
+        this.zone = zone;
+    }
+
+    /**
+     * Orologio preciso: ogni chiamata legge l'orologio di sistema.
+     *
+     * @param zone fuso orario, non null
+     * @return orologio
+     */
+    public static ClockProvider precise(@NotNull ZoneId zone) {
+        return new Precise(zone);
+    }
+
+    /**
+     * Orologio approssimato: i valori sono letti da una cache aggiornata in background, quindi possono essere indietro
+     * al massimo della risoluzione indicata e non allocano oggetti.
+     *
+     * @param zone       fuso orario, non null
+     * @param resolution intervallo di aggiornamento, almeno un millisecondo, non null
+     * @return orologio, da chiudere per fermare l'aggiornamento
+     */
+    public static Coarse coarse(@NotNull ZoneId zone, @NotNull Duration resolution) {
+        return new Coarse(zone, resolution);
+    }
+
+    /**
+     * Orologio fermo su un date-time, non modificabile.
+     *
+     * @param now  date-time restituito, non null
+     * @param zone fuso orario, non null
+     * @return orologio
+     */
+    public static ClockProvider fixed(@NotNull LocalDateTime now, @NotNull ZoneId zone) {
+        return new Fixed(now, zone);
+    }
+
+    /**
+     * Orologio spostato manualmente.
+     *
+     * @param now  date-time iniziale, non null
+     * @param zone fuso orario, non null
+     * @return orologio
+     */
+    public static Manual manual(@NotNull LocalDateTime now, @NotNull ZoneId zone) {
+        return new Manual(now, zone);
+    }
+
+    /**
+     * @return date-time corrente nel fuso orario dell'orologio
+     */
+    public abstract LocalDateTime now();
+
+    /**
+     * @return data corrente nel fuso orario dell'orologio
+     */
+    public LocalDate today() {
+        return now().toLocalDate();
+    }
+
+    /**
+     * @return millisecondi dall'epoch UTC correnti
+     */
+    public abstract long epochMilli();
+
+    /**
+     * @return fuso orario
+     */
+    public ZoneId zone() {
+        return zone;
+    }
+
+    private static final class Precise extends ClockProvider {
+
+        private final Clock clock;
+
+        private Precise(ZoneId zone) {
+            super(zone);
+            this.clock = Clock.system(zone);
+        }
+
+        @Override
+        public LocalDateTime now() {
+            return LocalDateTime.now(clock);
+        }
+
+        @Override
+        public LocalDate today() {
+            return LocalDate.now(clock);
+        }
+
+        @Override
+        public long epochMilli() {
+            return clock.millis();
+        }
+    }
+
+    /**
+     * Orologio approssimato aggiornato da un thread daemon; dopo {@link #close()} torna a leggere l'orologio di sistema
+     * a ogni chiamata.
+     */
+    public static final class Coarse extends ClockProvider implements AutoCloseable {
+
+        private record Tick(long epochMilli, LocalDateTime now, LocalDate today) {
+        }
+
+        private final Clock clock;
+        private final ScheduledExecutorService ticker;
+        private volatile Tick tick;
+        private volatile boolean closed;
+
+        private Coarse(ZoneId zone, Duration resolution) {
+            super(zone);
+            long period = resolution.toMillis();
+            if (period < 1)
+                throw new IllegalArgumentException("Resolution must be at least one millisecond.");
+            this.clock = Clock.system(zone);
+            this.tick = read();
+            this.ticker = Executors.newSingleThreadScheduledExecutor(r -> {
+                var thread = new Thread(r, "clock-provider-ticker");
+                thread.setDaemon(true);
+                return thread;
+            });
+            ticker.scheduleAtFixedRate(() -> tick = read(), period, period, TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public LocalDateTime now() {
+            return current().now();
+        }
+
+        @Override
+        public LocalDate today() {
+            return current().today();
+        }
+
+        @Override
+        public long epochMilli() {
+            return current().epochMilli();
+        }
+
+        /**
+         * Ferma il thread di aggiornamento.
+         */
+        @Override
+        public void close() {
+            closed = true;
+            ticker.shutdownNow();
+        }
+
+        private Tick current() {
+            return closed ? read() : tick;
+        }
+
+        private Tick read() {
+            // date-time e millisecondo derivano dallo stesso istante, anche nell'ora ripetuta del cambio d'ora
+            var instant = clock.instant();
+            var now = LocalDateTime.ofInstant(instant, zone());
+            return new Tick(instant.toEpochMilli(), now, now.toLocalDate());
+        }
+    }
+
+    private static final class Fixed extends ClockProvider {
+
+        private final LocalDateTime now;
+        private final long epochMilli;
+
+        private Fixed(LocalDateTime now, ZoneId zone) {
+            super(zone);
+            this.now = now;
+            this.epochMilli = now.atZone(zone).toInstant().toEpochMilli();
+        }
+
+        @Override
+        public LocalDateTime now() {
+            return now;
+        }
+
+        @Override
+        public long epochMilli() {
+            return epochMilli;
+        }
+    }
+
+    /**
+     * Orologio che avanza solo quando richiesto, per i test.
+     */
+    public static final class Manual extends ClockProvider {
+
+        private volatile LocalDateTime now;
+
+        private Manual(LocalDateTime now, ZoneId zone) {
+            super(zone);
+            this.now = now;
+        }
+
+        @Override
+        public LocalDateTime now() {
+            return now;
+        }
+
+        @Override
+        public long epochMilli() {
+            return now.atZone(zone()).toInstant().toEpochMilli();
+        }
+
+        /**
+         * @param now nuovo date-time corrente, non null
+         */
+        public synchronized void set(@NotNull LocalDateTime now) {
+            this.now = now;
+        }
+
+        /**
+         * @param instant nuovo istante corrente, non null
+         */
+        public synchronized void set(@NotNull Instant instant) {
+            this.now = LocalDateTime.ofInstant(instant, zone());
+        }
+
+        /**
+         * @param amount durata di cui spostare in avanti l'orologio, non null
+         */
+        public synchronized void advance(@NotNull Duration amount) {
+            this.now = now.plus(amount);
+        }
+    }
+
+}
@@ -0,0 +1,177 @@
+import jakarta.validation.constraints.NotNull;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Linea temporale della concorrenza dei periodi di una collezione, ad esempio il numero di turni attivi in ogni istante.
+ * <br>
+ * Inizi e fini sono conservati in due array ordinati di secondi dall'epoch in ora locale; la fine dei turni notturni è
+ * corretta con {@link DateUtility#checkCrossDay(LocalDateTime, LocalDateTime)}. Un periodo è attivo dal suo inizio,
+ * incluso, alla sua fine, esclusa: un turno che inizia esattamente alla fine di un altro non si somma a esso.
+ * <pre>
+ *     {@code ConcurrencyTimeline timeline = ConcurrencyTimeline.of(turni, TurnoDto::getDataOraInizio, TurnoDto::getDataOraFine);}
+ *     {@code int[] perQuartoDora = timeline.slotCounts(inizioMese, fineMese, Duration.ofMinutes(15));}
+ * </pre>
+ */
+public final class ConcurrencyTimeline {
+
+    private final long[] starts;
+    private final long[] ends;
+
+    private ConcurrencyTimeline(long[] starts, long[] ends) {
+        this.starts = starts;
+        this.ends = ends;
+    }
+
+    /**
+     * Costruisce la linea temporale di una collezione.
+     *
+     * @param collection  collezione, non null
+     * @param getterStart getter inizio entità, non null; il valore restituito non può essere null
+     * @param getterEnd   getter fine entità, non null; il valore restituito non può essere null
+     * @param <T>         tipo entità
+     * @return linea temporale
+     */
+    public static <T> ConcurrencyTimeline of(@NotNull Collection<T> collection,
+                                             @NotNull Function<T, LocalDateTime> getterStart,
+                                             @NotNull Function<T, LocalDateTime> getterEnd) {
+        long[] starts = new long[collection.size()];
+        long[] ends = new long[collection.size()];
+        int i = 0;
+        for (var t : collection) {
+            long start = EpochDateTimes.toEpochSecond(Objects.requireNonNull(getterStart.apply(t), "Start must not be null."));
+            long end = EpochDateTimes.toEpochSecond(Objects.requireNonNull(getterEnd.apply(t), "End must not be null."));
+            starts[i] = start;
+            ends[i] = EpochDateTimes.checkCrossDay(start, end);
+            i++;
+        }
+        Arrays.sort(starts);
+        Arrays.sort(ends);
+        return new ConcurrencyTimeline(starts, ends);
+    }
+
+    /**
+     * @return numero di periodi
+     */
+    public int size() {
+        return starts.length;
+    }
+
+    /**
+     * Restituisce il numero di periodi attivi in un istante.
+     *
+     * @param instant istante, non null
+     * @return periodi attivi
+     */
+    public int activeAt(@NotNull LocalDateTime instant) {
+        long second = EpochDateTimes.toEpochSecond(instant);
+        return countAtOrBefore(starts, second) - countAtOrBefore(ends, second);
+    }
+
+    /**
+     * @return massimo numero di periodi attivi contemporaneamente
+     */
+    public int peak() {
+        int peak = 0;
+        int active = 0;
+        int j = 0;
+        for (long start : starts) {
+            while (ends[j] <= start) {
+                active--;
+                j++;
+            }
+            peak = Math.max(peak, ++active);
+        }
+        return peak;
+    }
+
+    /**
+     * Conta i periodi che toccano ogni fascia di un intervallo, con una differenza per periodo e una somma prefissa.
+     * L'ultima fascia può essere più corta delle altre.
+     *
+     * @param from        inizio intervallo, incluso, non null
+     * @param to          fine intervallo, esclusa, non null
+     * @param granularity ampiezza delle fasce, un numero intero positivo di secondi, non null
+     * @return numero di periodi attivi in almeno un istante di ogni fascia
+     * @throws IllegalArgumentException se l'intervallo è invertito o la granularità non è un numero intero positivo di secondi
+     */
+    public int[] slotCounts(@NotNull LocalDateTime from, @NotNull LocalDateTime to, @NotNull Duration granularity) {
+        long first = EpochDateTimes.toEpochSecond(from);
+        long last = EpochDateTimes.toEpochSecond(to);
+        long width = granularity.getSeconds();
+        if (first > last)
+            throw new IllegalArgumentException("End period must be greater or equal start period.");
+        if (width < 1 || granularity.getNano() != 0)
+            throw new IllegalArgumentException("Granularity must be a positive whole number of seconds.");
+        int slots = Math.toIntExact(Math.ceilDiv(last - first, width));
+        int[] counts = new int[slots + 1];
+        // ogni periodo tocca le fasce dalla sua a quella che contiene la fine esclusa; inizi e fini si contano separatamente
+        for (long start : starts) {
+            counts[start >= last ? slots : (int) ((Math.max(start, first) - first) / width)]++;
+        }
+        for (long end : ends) {
+            counts[(int) Math.ceilDiv(Math.clamp(end, first, last) - first, width)]--;
+        }
+        for (int i = 1; i < slots; i++) {
+            counts[i] += counts[i - 1];
+        }
+        return Arrays.copyOf(counts, slots);
+    }
+
+    /**
+     * Restituisce gli intervalli in cui i periodi attivi superano una soglia.
+     *
+     * @param threshold soglia, esclusa
+     * @return intervalli con più di threshold periodi attivi; come in {@link PeriodSet} la fine è inclusa, quindi è
+     * l'ultimo microsecondo prima che i periodi attivi scendano alla soglia
+     */
+    public PeriodSet<LocalDateTime> intervalsAbove(int threshold) {
+        if (threshold < 0)
+            throw new IllegalArgumentException("Threshold must be greater or equal zero.");
+        List<PeriodSet.Period<LocalDateTime>> intervals = new ArrayList<>();
+        int active = 0;
+        long from = 0;
+        int i = 0;
+        int j = 0;
+        while (j < ends.length) {
+            long instant = i < starts.length ? Math.min(starts[i], ends[j]) : ends[j];
+            boolean wasAbove = active > threshold;
+            while (j < ends.length && ends[j] == instant) {
+                active--;
+                j++;
+            }
+            while (i < starts.length && starts[i] == instant) {
+                active++;
+                i++;
+            }
+            if (!wasAbove && active > threshold) {
+                from = instant;
+            } else if (wasAbove && active <= threshold) {
+                intervals.add(new PeriodSet.Period<>(EpochDateTimes.ofEpochSecond(from), EpochDateTimes.ofEpochSecond(instant).minusNanos(1000)));
+            }
+        }
+        return PeriodSet.ofDateTimes(intervals, PeriodSet.Period::start, PeriodSet.Period::end);
+    }
+
+    private static int countAtOrBefore(long[] sorted, long key) {
+        int lo = 0;
+        int hi = sorted.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (sorted[mid] <= key) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+}
@@ -0,0 +1,102 @@
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * Codifica dei {@link LocalDateTime} in chiavi {@code long} che ne preservano l'ordinamento in modo esatto.
+ * <br>
+ * La codifica diretta usa i nanosecondi dall'epoch (ora locale letta come UTC) ed è valida tra il 1677 e il 2262.
+ * Se i valori di una collezione escono da quell'intervallo (ad esempio le date sentinella 9999-12-31), le chiavi vengono
+ * calcolate per rango sui valori distinti: i confronti restano esatti, ma le differenze tra chiavi perdono significato.
+ * <br>
+ * I valori {@link Long#MIN_VALUE} e {@link Long#MAX_VALUE} non vengono mai prodotti e restano a disposizione come
+ * estremi aperti. Un date-time esterno ai valori della collezione (ad esempio l'estremo di una query) viene sempre
+ * codificato in modo da restare confrontabile con le chiavi della collezione.
+ */
+final class DateTimeKeys implements ToLongFunction<LocalDateTime> {
+
+    private static final DateTimeKeys NANOS = new DateTimeKeys(null);
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+    private static final long MIN_SECOND = Long.MIN_VALUE / NANOS_PER_SECOND + 1;
+    private static final long MAX_SECOND = Long.MAX_VALUE / NANOS_PER_SECOND - 1;
+
+    private final LocalDateTime[] ranked;
+
+    private DateTimeKeys(LocalDateTime[] ranked) {
+        this.ranked = ranked;
+    }
+
+    /**
+     * Sceglie la codifica adatta ai periodi di una collezione: diretta se tutti i valori rientrano nell'intervallo dei
+     * nanosecondi, per rango altrimenti.
+     *
+     * @param collection  collezione
+     * @param getterStart getter inizio
+     * @param getterEnd   getter fine, può restituire null
+     * @param <T>         tipo collezione
+     * @return codifica
+     */
+    static <T> DateTimeKeys of(Collection<T> collection,
+                               Function<T, LocalDateTime> getterStart,
+                               Function<T, LocalDateTime> getterEnd) {
+        boolean direct = true;
+        for (var t : collection) {
+            var end = getterEnd.apply(t);
+            if (!fitsNanos(getterStart.apply(t)) || (end != null && !fitsNanos(end))) {
+                direct = false;
+                break;
+            }
+        }
+        if (direct) {
+            return NANOS;
+        }
+        LocalDateTime[] values = new LocalDateTime[collection.size() * 2];
+        int size = 0;
+        for (var t : collection) {
+            values[size++] = getterStart.apply(t);
+            var end = getterEnd.apply(t);
+            if (end != null) {
+                values[size++] = end;
+            }
+        }
+        Arrays.sort(values, 0, size);
+        int distinct = 0;
+        for (int i = 0; i < size; i++) {
+            if (distinct == 0 || !values[distinct - 1].equals(values[i])) {
+                values[distinct++] = values[i];
+            }
+        }
+        return new DateTimeKeys(Arrays.copyOf(values, distinct));
+    }
+
+    /**
+     * Controlla che un date-time sia rappresentabile in nanosecondi dall'epoch.
+     *
+     * @param dateTime date-time
+     * @return vero se rappresentabile, falso altrimenti
+     */
+    static boolean fitsNanos(LocalDateTime dateTime) {
+        long second = dateTime.toEpochSecond(ZoneOffset.UTC);
+        return second >= MIN_SECOND && second <= MAX_SECOND;
+    }
+
+    @Override
+    public long applyAsLong(LocalDateTime dateTime) {
+        if (ranked == null) {
+            long second = dateTime.toEpochSecond(ZoneOffset.UTC);
+            if (second < MIN_SECOND) {
+                return Long.MIN_VALUE + 1;
+            }
+            if (second > MAX_SECOND) {
+                return Long.MAX_VALUE - 1;
+            }
+            return second * NANOS_PER_SECOND + dateTime.getNano();
+        }
+        int position = Arrays.binarySearch(ranked, dateTime);
+        return position >= 0 ? 2L * position : 2L * (-position - 1) - 1;
+    }
+
+}
@@ -9,17 +9,13 @@ import java.time.Month;
 import java.time.YearMonth;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoField;
 import java.time.temporal.ChronoUnit;
 import java.time.temporal.Temporal;
 import java.time.temporal.WeekFields;
 import java.util.Collection;
-import java.util.HashMap;
-import java.util.List;
 import java.util.Locale;
-import java.util.Map;
-import java.util.NavigableMap;
 import java.util.NavigableSet;
-import java.util.TreeMap;
 import java.util.TreeSet;
 import java.util.function.BiPredicate;
 import java.util.function.Function;
@@ -28,21 +24,37 @@ import java.util.function.Supplier;
 
 public class DateUtility {
 
+    private static final DateTimeFormatter DEFAULT_DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final WeekFields ITALIAN_WEEK_FIELDS = WeekFields.of(Locale.ITALY);
+    private static final ZoneId DEFAULT_TIMEZONE = ZoneId.of("Europe/Rome");
+
+    private static volatile ClockProvider clockProvider;
+
     /**
-     * Crea un insieme contenente tutte le date all'interno di un periodo temporale, estremi inclusi
+     * Crea un insieme modificabile contenente tutte le date all'interno di un periodo temporale, estremi inclusi.
+     * Se la fine precede l'inizio, l'insieme contiene solo l'inizio.
      *
      * @param dateStart inizio periodo
      * @param dateEnd   fine periodo
      * @return insieme di date
      */
     public static NavigableSet<LocalDate> createSetDates(LocalDate dateStart, LocalDate dateEnd) {
-        NavigableSet<LocalDate> setDates = new TreeSet<>();
-        LocalDate temp = dateStart;
-        do {
-            setDates.add(temp);
-            temp = temp.plusDays(1);
-        } while (!temp.isAfter(dateEnd));
-        return setDates;
+        var measure = Instrumentation.start();
+        var dates = new TreeSet<>(createRangeDates(dateStart, dateEnd.isBefore(dateStart) ? dateStart : dateEnd));
+        Instrumentation.stop(Instrumentation.Operation.CREATE_SET_DATES, dates.size(), measure);
+        return dates;
+    }
+
+    /**
+     * Crea una vista immutabile di tutte le date all'interno di un periodo temporale, estremi inclusi, senza materializzarle.
+     * Da preferire a {@link #createSetDates(LocalDate, LocalDate)} quando l'insieme serve solo in lettura.
+     *
+     * @param dateStart inizio periodo
+     * @param dateEnd   fine periodo
+     * @return insieme di date; vuoto se la fine precede l'inizio
+     */
+    public static LocalDateRange createRangeDates(LocalDate dateStart, LocalDate dateEnd) {
+        return LocalDateRange.of(dateStart, dateEnd);
     }
 
     /**
@@ -184,39 +196,63 @@ public class DateUtility {
     }
 
     /**
-     * Restituisce la data odierna per il fuso orario di default CEST+1
+     * Restituisce la data odierna per il fuso orario di default CEST+1, letta da {@link #getClockProvider()}
      *
      * @return data odierna per il fuso orario di Roma
      */
     public static LocalDate today() {
-        return LocalDate.now(getDefaultTimezone());
+        return getClockProvider().today();
     }
 
     /**
-     * Restituisce il date-time del momento estratto, con il fuso orario di default CEST+1
+     * Restituisce il date-time del momento estratto, con il fuso orario di default CEST+1, letto da {@link #getClockProvider()}
      *
      * @return adesso
      */
     public static LocalDateTime now() {
-        return LocalDateTime.now(getDefaultTimezone());
+        return getClockProvider().now();
     }
 
     /**
-     * Restituisce il fuso orario di default del sistema, ovvero quello di Roma
+     * Restituisce l'orologio usato da {@link #now()} e {@link #today()}. Se non ne è stato impostato uno, è l'orologio
+     * preciso sul fuso orario di default; quello approssimato di {@link ClockProvider#coarse(ZoneId, java.time.Duration)}
+     * va impostato esplicitamente con {@link #setClockProvider(ClockProvider)}.
+     *
+     * @return orologio corrente
+     */
+    public static ClockProvider getClockProvider() {
+        var provider = clockProvider;
+        return provider != null ? provider : DefaultClockHolder.INSTANCE;
+    }
+
+    /**
+     * Imposta l'orologio usato da {@link #now()} e {@link #today()}, ad esempio {@link ClockProvider#precise(ZoneId)} o un
+     * orologio manuale nei test.
+     *
+     * @param provider orologio, null per tornare a quello di default
+     */
+    public static void setClockProvider(@Nullable ClockProvider provider) {
+        clockProvider = provider;
+    }
+
+    /**
+     * Restituisce il fuso orario di default del sistema, ovvero quello di Roma. Per convertire grandi volumi di date-time
+     * usare {@link ZoneConverter#getDefault()}.
      *
      * @return Fuso orario di Roma
      */
     public static ZoneId getDefaultTimezone() {
-        return ZoneId.of("Europe/Rome");
+        return DEFAULT_TIMEZONE;
     }
 
     /**
-     * Restituisce la formattazione di sistema per i date-time, ovvero yyyy-MM-dd HH:mm:ss
+     * Restituisce la formattazione di sistema per i date-time, ovvero yyyy-MM-dd HH:mm:ss. Il formattatore è immutabile e
+     * condiviso; per grandi volumi di date-time usare {@link DefaultDateTimeCodec}, che non alloca oggetti intermedi.
      *
      * @return Formattatore per i date-time
      */
     public static DateTimeFormatter getDefaultDateTimeFormatter() {
-        return DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+        return DEFAULT_DATE_TIME_FORMATTER;
     }
 
     /**
@@ -227,6 +263,9 @@ public class DateUtility {
      * @return primo giorno del mese
      */
     public static LocalDate getFirstDayOfMonth(int month, int year) {
+        if (isInCalendarTable(month, year)) {
+            return LocalDate.ofEpochDay(CalendarTable.getDefault().firstDayOfMonth(month, year));
+        }
         YearMonth yearMonth = getYearMonth(year, month);
         return yearMonth.atDay(1);
     }
@@ -239,21 +278,27 @@ public class DateUtility {
      * @return ultimo giorno del mese
      */
     public static LocalDate getLastDayOfMonth(int month, int year) {
+        if (isInCalendarTable(month, year)) {
+            return LocalDate.ofEpochDay(CalendarTable.getDefault().lastDayOfMonth(month, year));
+        }
         YearMonth yearMonth = getYearMonth(year, month);
         return yearMonth.atEndOfMonth();
     }
 
     /**
-     * Data una settimana dell'anno e un anno, restituisce il lunedì di quella settimana.
+     * Data una settimana dell'anno e un anno, restituisce il lunedì di quella settimana. La settimana 1 è quella che contiene
+     * il 4 gennaio; la settimana 0 è quella precedente.
      *
      * @param week Settimana dell'anno.
      * @param year Anno.
      * @return Data del lunedì per la settimana dell'anno in ingresso.
      */
     public static LocalDate getMondayByWeekOfYear(int week, int year) {
-        return today()
-                .withYear(year)
-                .with(WeekFields.of(Locale.ITALY).weekOfYear(), week)
+        if (week >= 0 && week <= 54 && CalendarTable.getDefault().covers(year)) {
+            return LocalDate.ofEpochDay(CalendarTable.getDefault().mondayOfWeek(week, year));
+        }
+        return LocalDate.of(year, Month.JANUARY, 4)
+                .with(ITALIAN_WEEK_FIELDS.weekOfYear(), week)
                 .with(DayOfWeek.MONDAY);
     }
 
@@ -293,14 +338,22 @@ public class DateUtility {
     /**
      * Restituisce la settimana dell'anno dato un oggetto temporal in ingresso, che sia {@link LocalDateTime}, {@link LocalDate} o equivalente (deve supportare il campo {@link WeekFields}).
      * Nel caso in cui la settimana non cominci di lunedì, il metodo nativo di java restituisce la settimana 0; questo metodo invece, sposta i giorni
-     * della settimana 0 all'ultima settimana dell'anno.
+     * della settimana 0 all'ultima settimana dell'anno precedente, che può essere la 52 o la 53.
      *
      * @param temporal temporal
      * @return settimana dell'anno
      */
     public static int getWeekOfYear(Temporal temporal) {
-        int weekOfYear = temporal.get(WeekFields.of(Locale.ITALY).weekOfYear());
-        return weekOfYear == 0 ? 52 : weekOfYear;
+        if (temporal.isSupported(ChronoField.EPOCH_DAY)) {
+            long epochDay = temporal.getLong(ChronoField.EPOCH_DAY);
+            if (CalendarTable.getDefault().covers(epochDay)) {
+                return CalendarTable.getDefault().weekOfYear(epochDay);
+            }
+        }
+        int weekOfYear = temporal.get(ITALIAN_WEEK_FIELDS.weekOfYear());
+        return weekOfYear == 0
+                ? LocalDate.from(temporal).withDayOfYear(1).minusDays(1).get(ITALIAN_WEEK_FIELDS.weekOfYear())
+                : weekOfYear;
     }
 
     /**
@@ -324,9 +377,16 @@ public class DateUtility {
      * @return oggetto mese anno
      */
     public static YearMonth getYearMonth(int year, int month) {
+        if (isInCalendarTable(month, year)) {
+            return CalendarTable.getDefault().yearMonth(month, year);
+        }
         return YearMonth.of(year, Month.of(month));
     }
 
+    private static boolean isInCalendarTable(int month, int year) {
+        return month >= 1 && month <= 12 && CalendarTable.getDefault().covers(year);
+    }
+
     /**
      * Restituisce un filtro per il test di una coppia di date all'interno di un periodo in ingresso. Restituisce true nel caso
      * in cui vi sia una qualsiasi intersezione.
@@ -371,6 +431,7 @@ public class DateUtility {
      * <pre>
      *     {@code .filter(sk -> DateUtility.entityInPeriod(inizioPeriodo, finePeriodo, SkillDto::getDataInizio, SkillDto::getDataFine))}
      * </pre>
+     * Per interrogare più volte la stessa collezione conviene costruire una volta sola un {@link PeriodIndex}.
      *
      * @param startPeriod inizio periodo controllo, non null
      * @param endPeriod   fine periodo controllo, non null
@@ -402,6 +463,7 @@ public class DateUtility {
      * <pre>
      *     {@code .filter(t -> DateUtility.entityInPeriod(inizioPeriodo, finePeriodo, TurnoDto::getDataOraInizio, TurnoDto::getDataOraFine))}
      * </pre>
+     * Per interrogare più volte la stessa collezione conviene costruire una volta sola un {@link PeriodIndex}.
      *
      * @param startPeriod inizio periodo controllo, non null
      * @param endPeriod   fine periodo controllo, non null
@@ -424,7 +486,9 @@ public class DateUtility {
     }
 
     /**
-     * Controlla che, data una collezione con funzioni di estrazione di data inizio e fine, non vi siano sovrapposizioni di periodo
+     * Controlla che, data una collezione con funzioni di estrazione di data inizio e fine, non vi siano sovrapposizioni di periodo.
+     * Le regole sono quelle di {@link OverlapDetector}: un periodo può iniziare alla fine del precedente e la fine null indica
+     * un periodo aperto. Per ottenere tutte le coppie in conflitto usare direttamente {@link OverlapDetector#detectDates}.
      *
      * @param collection        collezione
      * @param functionDateStart getter data inizio
@@ -437,31 +501,18 @@ public class DateUtility {
                                                                          Function<T, LocalDate> functionDateStart,
                                                                          Function<T, LocalDate> functionDateEnd,
                                                                          Supplier<E> exceptionThrower) {
-        NavigableMap<LocalDate, LocalDate> mapStartEnd = new TreeMap<>();
-        Map<LocalDate, LocalDate> invertedMapEndStart = new HashMap<>();
-        for (var t : collection) {
-            var start = functionDateStart.apply(t);
-            var end = functionDateEnd.apply(t);
-            if (mapStartEnd.containsKey(start)) {
-                throw exceptionThrower.get();
-            }
-            mapStartEnd.put(start, end);
-            invertedMapEndStart.put(end, start);
-        }
-        List<LocalDate> listEnds = mapStartEnd.values().stream()
-                .sorted()
-                .toList();
-        for (var end : listEnds) {
-            var start = invertedMapEndStart.get(end);
-            var supposedStart = mapStartEnd.lowerKey(end);
-            if (supposedStart != null && !start.equals(supposedStart)) {
-                throw exceptionThrower.get();
-            }
+        var measure = Instrumentation.start();
+        boolean conflicts = OverlapDetector.detectDates(collection, functionDateStart, functionDateEnd, OverlapDetector.Mode.FIRST).hasConflicts();
+        Instrumentation.stop(Instrumentation.Operation.CHECK_OVERLAP_DATES, collection.size(), measure);
+        if (conflicts) {
+            throw exceptionThrower.get();
         }
     }
 
     /**
-     * Controlla che, data una collezione con funzioni di estrazione di date-time di inizio e fine, non vi siano sovrapposizioni di periodo
+     * Controlla che, data una collezione con funzioni di estrazione di date-time di inizio e fine, non vi siano sovrapposizioni di periodo.
+     * Le regole sono quelle di {@link OverlapDetector}: un periodo può iniziare alla fine del precedente e la fine null indica
+     * un periodo aperto. Per ottenere tutte le coppie in conflitto usare direttamente {@link OverlapDetector#detectDateTimes}.
      *
      * @param collection        collezione
      * @param functionDateStart funzione getter date-time inizio
@@ -474,26 +525,11 @@ public class DateUtility {
                                                                              Function<T, LocalDateTime> functionDateStart,
                                                                              Function<T, LocalDateTime> functionDateEnd,
                                                                              Supplier<E> exceptionThrower) {
-        NavigableMap<LocalDateTime, LocalDateTime> mapStartEnd = new TreeMap<>();
-        Map<LocalDateTime, LocalDateTime> invertedMapEndStart = new HashMap<>();
-        for (var t : collection) {
-            var start = functionDateStart.apply(t);
-            var end = functionDateEnd.apply(t);
-            if (mapStartEnd.containsKey(start)) {
-                throw exceptionThrower.get();
-            }
-            mapStartEnd.put(start, end);
-            invertedMapEndStart.put(end, start);
-        }
-        List<LocalDateTime> listEnds = mapStartEnd.values().stream()
-                .sorted()
-                .toList();
-        for (var end : listEnds) {
-            var start = invertedMapEndStart.get(end);
-            var supposedStart = mapStartEnd.lowerKey(end);
-            if (supposedStart != null && !start.equals(supposedStart)) {
-                throw exceptionThrower.get();
-            }
+        var measure = Instrumentation.start();
+        boolean conflicts = OverlapDetector.detectDateTimes(collection, functionDateStart, functionDateEnd, OverlapDetector.Mode.FIRST).hasConflicts();
+        Instrumentation.stop(Instrumentation.Operation.CHECK_OVERLAP_DATE_TIMES, collection.size(), measure);
+        if (conflicts) {
+            throw exceptionThrower.get();
         }
     }
 
@@ -524,4 +560,8 @@ public class DateUtility {
                 || parentEnd != null && (childEnd == null || childEnd.isAfter(parentEnd));
     }
 
+    private static final class DefaultClockHolder {
+        private static final ClockProvider INSTANCE = ClockProvider.precise(DEFAULT_TIMEZONE);
+    }
+
 }
@@ -0,0 +1,411 @@
+import jakarta.validation.constraints.NotNull;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Codifica e decodifica del formato di sistema {@code yyyy-MM-dd HH:mm:ss} (vedi {@link DateUtility#getDefaultDateTimeFormatter()})
+ * senza oggetti intermedi: i valori sono secondi dall'epoch in ora locale, cioè {@code LocalDateTime.toEpochSecond(ZoneOffset.UTC)},
+ * e vengono scritti o letti direttamente su buffer forniti dal chiamante.
+ * <br>
+ * Il parsing si comporta come il formattatore in modalità {@link java.time.format.ResolverStyle#SMART}: un giorno oltre la fine
+ * del mese viene riportato all'ultimo giorno valido e {@code 24:00:00} diventa la mezzanotte del giorno dopo. Sono supportati
+ * gli anni da 1 a 9999, gli unici rappresentabili con quattro cifre.
+ */
+public class DefaultDateTimeCodec {
+
+    /**
+     * Lunghezza fissa di un date-time formattato
+     */
+    public static final int LENGTH = 19;
+
+    private static final long SECONDS_PER_DAY = 86_400L;
+    private static final long MIN_EPOCH_SECOND = LocalDateTime.of(1, 1, 1, 0, 0).toEpochSecond(ZoneOffset.UTC);
+    private static final long MAX_EPOCH_SECOND = LocalDateTime.of(9999, 12, 31, 23, 59, 59).toEpochSecond(ZoneOffset.UTC);
+    private static final int[] POWERS_OF_TEN = {1, 10, 100, 1000};
+    private static final String TEMPLATE = "0000-00-00 00:00:00";
+    // per ogni posizione del testo, l'indice della cifra in digits(long) o -1 per i separatori
+    private static final byte[] DIGIT_INDEX = {0, 1, 2, 3, -1, 4, 5, -1, 6, 7, -1, 8, 9, -1, 10, 11, -1, 12, 13};
+
+    /**
+     * Scrive un date-time su un array di caratteri.
+     *
+     * @param epochSecond secondi dall'epoch in ora locale
+     * @param dst         destinazione
+     * @param offset      posizione di scrittura
+     * @return posizione successiva all'ultimo carattere scritto
+     */
+    public static int format(long epochSecond, @NotNull char[] dst, int offset) {
+        long digits = digits(epochSecond);
+        for (int i = 0; i < LENGTH; i++) {
+            dst[offset + i] = charAt(digits, i);
+        }
+        return offset + LENGTH;
+    }
+
+    /**
+     * Scrive un date-time su un array di byte ASCII.
+     *
+     * @param epochSecond secondi dall'epoch in ora locale
+     * @param dst         destinazione
+     * @param offset      posizione di scrittura
+     * @return posizione successiva all'ultimo byte scritto
+     */
+    public static int format(long epochSecond, @NotNull byte[] dst, int offset) {
+        long digits = digits(epochSecond);
+        for (int i = 0; i < LENGTH; i++) {
+            dst[offset + i] = (byte) charAt(digits, i);
+        }
+        return offset + LENGTH;
+    }
+
+    /**
+     * Accoda un date-time a uno {@link StringBuilder}.
+     *
+     * @param epochSecond secondi dall'epoch in ora locale
+     * @param dst         destinazione
+     * @return la destinazione
+     */
+    public static StringBuilder format(long epochSecond, @NotNull StringBuilder dst) {
+        long digits = digits(epochSecond);
+        for (int i = 0; i < LENGTH; i++) {
+            dst.append(charAt(digits, i));
+        }
+        return dst;
+    }
+
+    /**
+     * Scrive un date-time su un {@link ByteBuffer} a partire dalla posizione corrente, che viene avanzata.
+     *
+     * @param epochSecond secondi dall'epoch in ora locale
+     * @param dst         destinazione
+     * @return la destinazione
+     */
+    public static ByteBuffer format(long epochSecond, @NotNull ByteBuffer dst) {
+        int position = dst.position();
+        if (dst.remaining() < LENGTH) {
+            throw new BufferOverflowException();
+        }
+        long digits = digits(epochSecond);
+        for (int i = 0; i < LENGTH; i++) {
+            dst.put(position + i, (byte) charAt(digits, i));
+        }
+        dst.position(position + LENGTH);
+        return dst;
+    }
+
+    /**
+     * Scrive un {@link LocalDateTime} su un array di caratteri.
+     *
+     * @param dateTime date-time
+     * @param dst      destinazione
+     * @param offset   posizione di scrittura
+     * @return posizione successiva all'ultimo carattere scritto
+     */
+    public static int format(@NotNull LocalDateTime dateTime, @NotNull char[] dst, int offset) {
+        return format(dateTime.toEpochSecond(ZoneOffset.UTC), dst, offset);
+    }
+
+    /**
+     * Legge un date-time da una sequenza di caratteri.
+     *
+     * @param src    sorgente
+     * @param offset posizione del primo carattere
+     * @return secondi dall'epoch in ora locale
+     * @throws DateTimeParseException se il testo non rispetta il formato
+     */
+    public static long parse(@NotNull CharSequence src, int offset) {
+        if (src.length() - offset < LENGTH) {
+            throw error(src, src.length());
+        }
+        for (int i = 0; i < LENGTH; i++) {
+            if (!matches(src.charAt(offset + i), i)) {
+                throw error(src, offset + i);
+            }
+        }
+        return resolve(src, offset,
+                number4(src.charAt(offset), src.charAt(offset + 1), src.charAt(offset + 2), src.charAt(offset + 3)),
+                number2(src.charAt(offset + 5), src.charAt(offset + 6)),
+                number2(src.charAt(offset + 8), src.charAt(offset + 9)),
+                number2(src.charAt(offset + 11), src.charAt(offset + 12)),
+                number2(src.charAt(offset + 14), src.charAt(offset + 15)),
+                number2(src.charAt(offset + 17), src.charAt(offset + 18)));
+    }
+
+    /**
+     * Legge un date-time da un array di byte ASCII.
+     *
+     * @param src    sorgente
+     * @param offset posizione del primo byte
+     * @return secondi dall'epoch in ora locale
+     * @throws DateTimeParseException se il testo non rispetta il formato
+     */
+    public static long parse(@NotNull byte[] src, int offset) {
+        if (src.length - offset < LENGTH) {
+            throw error(ascii(src, offset, src.length), Math.max(0, src.length - offset));
+        }
+        for (int i = 0; i < LENGTH; i++) {
+            if (!matches((char) (src[offset + i] & 0xFF), i)) {
+                throw error(ascii(src, offset, offset + LENGTH), i);
+            }
+        }
+        long epochSecond = resolve(null, offset,
+                number4(src[offset], src[offset + 1], src[offset + 2], src[offset + 3]),
+                number2(src[offset + 5], src[offset + 6]),
+                number2(src[offset + 8], src[offset + 9]),
+                number2(src[offset + 11], src[offset + 12]),
+                number2(src[offset + 14], src[offset + 15]),
+                number2(src[offset + 17], src[offset + 18]));
+        if (epochSecond == Long.MIN_VALUE) {
+            throw error(ascii(src, offset, offset + LENGTH), 0);
+        }
+        return epochSecond;
+    }
+
+    /**
+     * Legge un date-time da un {@link ByteBuffer} in posizione assoluta, senza modificare la posizione del buffer.
+     *
+     * @param src    sorgente
+     * @param offset posizione assoluta del primo byte
+     * @return secondi dall'epoch in ora locale
+     * @throws DateTimeParseException se il testo non rispetta il formato
+     */
+    public static long parse(@NotNull ByteBuffer src, int offset) {
+        if (src.limit() - offset < LENGTH) {
+            throw error(ascii(src, offset, src.limit()), Math.max(0, src.limit() - offset));
+        }
+        if (src.hasArray()) {
+            return parse(src.array(), src.arrayOffset() + offset);
+        }
+        for (int i = 0; i < LENGTH; i++) {
+            if (!matches((char) (src.get(offset + i) & 0xFF), i)) {
+                throw error(ascii(src, offset, offset + LENGTH), i);
+            }
+        }
+        long epochSecond = resolve(null, offset,
+                number4(src.get(offset), src.get(offset + 1), src.get(offset + 2), src.get(offset + 3)),
+                number2(src.get(offset + 5), src.get(offset + 6)),
+                number2(src.get(offset + 8), src.get(offset + 9)),
+                number2(src.get(offset + 11), src.get(offset + 12)),
+                number2(src.get(offset + 14), src.get(offset + 15)),
+                number2(src.get(offset + 17), src.get(offset + 18)));
+        if (epochSecond == Long.MIN_VALUE) {
+            throw error(ascii(src, offset, offset + LENGTH), 0);
+        }
+        return epochSecond;
+    }
+
+    /**
+     * Legge un {@link LocalDateTime} da una sequenza di caratteri, che deve contenere solo il date-time.
+     *
+     * @param src sorgente
+     * @return date-time
+     * @throws DateTimeParseException se il testo non rispetta il formato
+     */
+    public static LocalDateTime parseLocalDateTime(@NotNull CharSequence src) {
+        if (src.length() > LENGTH) {
+            throw error(src, LENGTH);
+        }
+        return LocalDateTime.ofEpochSecond(parse(src, 0), 0, ZoneOffset.UTC);
+    }
+
+    /**
+     * Scrive un array di date-time su un array di byte ASCII, a distanza fissa l'uno dall'altro. I byte tra un record e l'altro
+     * non vengono toccati, quindi il chiamante può pre-impostare i separatori.
+     *
+     * @param epochSeconds secondi dall'epoch in ora locale
+     * @param dst          destinazione
+     * @param offset       posizione del primo record
+     * @param stride       distanza tra l'inizio di due record consecutivi, almeno {@link #LENGTH}
+     * @return posizione successiva all'ultimo record
+     */
+    public static int formatAll(@NotNull long[] epochSeconds, @NotNull byte[] dst, int offset, int stride) {
+        checkStride(stride);
+        for (long epochSecond : epochSeconds) {
+            format(epochSecond, dst, offset);
+            offset += stride;
+        }
+        return offset;
+    }
+
+    /**
+     * Scrive un array di date-time su un array di caratteri, a distanza fissa l'uno dall'altro.
+     *
+     * @param epochSeconds secondi dall'epoch in ora locale
+     * @param dst          destinazione
+     * @param offset       posizione del primo record
+     * @param stride       distanza tra l'inizio di due record consecutivi, almeno {@link #LENGTH}
+     * @return posizione successiva all'ultimo record
+     */
+    public static int formatAll(@NotNull long[] epochSeconds, @NotNull char[] dst, int offset, int stride) {
+        checkStride(stride);
+        for (long epochSecond : epochSeconds) {
+            format(epochSecond, dst, offset);
+            offset += stride;
+        }
+        return offset;
+    }
+
+    /**
+     * Legge record a distanza fissa da un array di byte ASCII e li scrive come secondi dall'epoch in ora locale.
+     *
+     * @param src    sorgente
+     * @param offset posizione del primo record
+     * @param stride distanza tra l'inizio di due record consecutivi, almeno {@link #LENGTH}
+     * @param dst    destinazione, riempita per intero
+     * @throws DateTimeParseException se un record non rispetta il formato
+     */
+    public static void parseAll(@NotNull byte[] src, int offset, int stride, @NotNull long[] dst) {
+        checkStride(stride);
+        for (int i = 0; i < dst.length; i++) {
+            dst[i] = parse(src, offset);
+            offset += stride;
+        }
+    }
+
+    /**
+     * Legge record a distanza fissa da una sequenza di caratteri e li scrive come secondi dall'epoch in ora locale.
+     *
+     * @param src    sorgente
+     * @param offset posizione del primo record
+     * @param stride distanza tra l'inizio di due record consecutivi, almeno {@link #LENGTH}
+     * @param dst    destinazione, riempita per intero
+     * @throws DateTimeParseException se un record non rispetta il formato
+     */
+    public static void parseAll(@NotNull CharSequence src, int offset, int stride, @NotNull long[] dst) {
+        checkStride(stride);
+        for (int i = 0; i < dst.length; i++) {
+            dst[i] = parse(src, offset);
+            offset += stride;
+        }
+    }
+
+    /**
+     * Converte un giorno dall'epoch in anno, mese e giorno, impacchettati come {@code anno << 9 | mese << 5 | giorno}.
+     */
+    static long civilFromDays(long epochDay) {
+        long z = epochDay + 719_468;
+        long era = Math.floorDiv(z, 146_097);
+        long dayOfEra = z - era * 146_097;
+        long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36_524 - dayOfEra / 146_096) / 365;
+        long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        long shiftedMonth = (5 * dayOfYear + 2) / 153;
+        long day = dayOfYear - (153 * shiftedMonth + 2) / 5 + 1;
+        long month = shiftedMonth < 10 ? shiftedMonth + 3 : shiftedMonth - 9;
+        long year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+        return year << 9 | month << 5 | day;
+    }
+
+    /**
+     * Converte anno, mese e giorno in giorno dall'epoch.
+     */
+    static long daysFromCivil(long year, int month, int day) {
+        year -= month <= 2 ? 1 : 0;
+        long era = Math.floorDiv(year, 400);
+        long yearOfEra = year - era * 400;
+        long dayOfYear = (153L * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        long dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146_097 + dayOfEra - 719_468;
+    }
+
+    private static long resolve(CharSequence text, int offset, int year, int month, int day, int hour, int minute, int second) {
+        boolean endOfDay = hour == 24 && minute == 0 && second == 0;
+        if (year < 1 || month < 1 || month > 12 || day < 1 || day > 31 || (hour > 23 && !endOfDay) || minute > 59 || second > 59) {
+            if (text == null) {
+                return Long.MIN_VALUE;
+            }
+            throw error(text, offset);
+        }
+        int lengthOfMonth = lengthOfMonth(year, month);
+        long epochDay = daysFromCivil(year, month, Math.min(day, lengthOfMonth));
+        return (epochDay + (endOfDay ? 1 : 0)) * SECONDS_PER_DAY + (endOfDay ? 0 : hour * 3600 + minute * 60 + second);
+    }
+
+    private static int lengthOfMonth(int year, int month) {
+        return switch (month) {
+            case 2 -> (year % 4 == 0 && (year % 100 != 0 || year % 400 == 0)) ? 29 : 28;
+            case 4, 6, 9, 11 -> 30;
+            default -> 31;
+        };
+    }
+
+    private static boolean matches(char c, int position) {
+        return switch (position) {
+            case 4, 7 -> c == '-';
+            case 10 -> c == ' ';
+            case 13, 16 -> c == ':';
+            default -> c >= '0' && c <= '9';
+        };
+    }
+
+    private static int number4(int c1, int c2, int c3, int c4) {
+        return (c1 - '0') * 1000 + (c2 - '0') * 100 + (c3 - '0') * 10 + (c4 - '0');
+    }
+
+    private static int number2(int c1, int c2) {
+        return (c1 - '0') * 10 + (c2 - '0');
+    }
+
+    /**
+     * Calcola le 14 cifre del date-time ({@code yyyyMMddHHmmss}), impacchettate a 4 bit ciascuna a partire dai bit alti.
+     */
+    private static long digits(long epochSecond) {
+        checkRange(epochSecond);
+        long civil = civilFromDays(Math.floorDiv(epochSecond, SECONDS_PER_DAY));
+        int secondOfDay = (int) Math.floorMod(epochSecond, SECONDS_PER_DAY);
+        long digits = 0;
+        digits = pack(digits, (int) (civil >>> 9), 4);
+        digits = pack(digits, (int) (civil >>> 5) & 0xF, 2);
+        digits = pack(digits, (int) civil & 0x1F, 2);
+        digits = pack(digits, secondOfDay / 3600, 2);
+        digits = pack(digits, secondOfDay / 60 % 60, 2);
+        return pack(digits, secondOfDay % 60, 2);
+    }
+
+    private static long pack(long digits, int value, int count) {
+        for (int i = count - 1; i >= 0; i--) {
+            digits = digits << 4 | (value / POWERS_OF_TEN[i] % 10);
+        }
+        return digits;
+    }
+
+    /**
+     * @return carattere del date-time formattato in una posizione: un separatore o una delle cifre di {@link #digits(long)}
+     */
+    private static char charAt(long digits, int position) {
+        int index = DIGIT_INDEX[position];
+        return index < 0 ? TEMPLATE.charAt(position) : (char) ('0' + (digits >>> (52 - 4 * index) & 0xF));
+    }
+
+    private static void checkRange(long epochSecond) {
+        if (epochSecond < MIN_EPOCH_SECOND || epochSecond > MAX_EPOCH_SECOND) {
+            throw new DateTimeException("Year out of range for the default date-time format: " + epochSecond);
+        }
+    }
+
+    private static void checkStride(int stride) {
+        if (stride < LENGTH) {
+            throw new IllegalArgumentException("Stride must be greater or equal " + LENGTH + ".");
+        }
+    }
+
+    private static String ascii(byte[] src, int from, int to) {
+        return new String(src, from, Math.max(0, to - from), StandardCharsets.ISO_8859_1);
+    }
+
+    private static String ascii(ByteBuffer src, int from, int to) {
+        byte[] text = new byte[Math.max(0, to - from)];
+        src.get(from, text);
+        return new String(text, StandardCharsets.ISO_8859_1);
+    }
+
+    private static DateTimeParseException error(CharSequence text, int errorIndex) {
+        return new DateTimeParseException("Text could not be parsed with the default date-time format", text, errorIndex);
+    }
+
+}
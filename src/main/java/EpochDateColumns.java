@@ -0,0 +1,177 @@
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * Filtri di {@link EpochDates} applicati a colonne intere di giorni dall'epoch, per periodi già salvati come array
+ * paralleli di inizi e fini, con {@link EpochDates#OPEN_END} per la fine aperta.
+ * <br>
+ * Il risultato è una bitmask: il bit {@code i % 64} della parola {@code i / 64} vale 1 se l'elemento i soddisfa il filtro.
+ * I confronti sono calcolati come bit di segno di differenze in {@code long}, senza salti condizionali dipendenti dai
+ * dati: il costo non dipende dalla distribuzione delle date e il ciclo non soffre di previsioni di salto sbagliate.
+ * Le colonne sono elaborate a blocchi di {@value #BLOCK} righe in due passate: i confronti scrivono un byte 0/1 per riga,
+ * ciclo semplice che il compilatore JIT vettorizza, poi i byte sono impacchettati nelle parole della bitmask.
+ * La bitmask si converte in indici con {@link #indexes(long[])}.
+ * <pre>
+ *     {@code long[] mask = EpochDateColumns.inPeriod(inizi, fini, EpochDates.toEpochDay(inizio), EpochDates.toEpochDay(fine));}
+ *     {@code for (int i : EpochDateColumns.indexes(mask)) { ... }}
+ * </pre>
+ */
+public final class EpochDateColumns {
+
+    /**
+     * Righe elaborate per blocco, multiplo di 64
+     */
+    private static final int BLOCK = 1 << 11;
+
+    private EpochDateColumns() {
+    }
+
+    /**
+     * Come {@link EpochDates#isInPeriod(int, int, int, int)} su ogni riga: intersezione tra [starts[i], ends[i]] e il periodo
+     * di controllo.
+     *
+     * @param starts      inizi dei periodi, non null
+     * @param ends        fini dei periodi, {@link EpochDates#OPEN_END} se aperti, non null
+     * @param startPeriod inizio periodo
+     * @param endPeriod   fine periodo
+     * @return bitmask delle righe che intersecano il periodo
+     * @throws IllegalArgumentException se le colonne hanno lunghezze diverse
+     */
+    public static long[] inPeriod(@NotNull int[] starts, @NotNull int[] ends, int startPeriod, int endPeriod) {
+        checkColumns(starts, ends);
+        int size = starts.length;
+        long[] mask = new long[words(size)];
+        byte[] flags = new byte[Math.min(size, BLOCK)];
+        for (int from = 0; from < size; from += BLOCK) {
+            int length = Math.min(BLOCK, size - from);
+            for (int i = 0; i < length; i++) {
+                int d1 = starts[from + i];
+                int d2 = ends[from + i];
+                long open = lessThan(d2, EpochDates.OPEN_END) ^ 1;
+                long contains = lessThan(d1, startPeriod) & (open | lessThan(endPeriod, d2));
+                long startIn = inRange(d1, startPeriod, endPeriod);
+                long endIn = (open ^ 1) & inRange(d2, startPeriod, endPeriod);
+                flags[i] = (byte) (contains | startIn | endIn);
+            }
+            pack(flags, length, mask, from);
+        }
+        return mask;
+    }
+
+    /**
+     * Come {@link EpochDates#checkInclusiveElement(int, int, int, int)} su ogni riga: il periodo [starts[i], ends[i]] è
+     * incluso nel periodo includente.
+     *
+     * @param starts      inizi dei periodi, non null
+     * @param ends        fini dei periodi, {@link EpochDates#OPEN_END} se aperti, non null
+     * @param parentStart inizio periodo includente
+     * @param parentEnd   fine periodo includente, {@link EpochDates#OPEN_END} se aperto
+     * @return bitmask delle righe incluse
+     * @throws IllegalArgumentException se le colonne hanno lunghezze diverse
+     */
+    public static long[] included(@NotNull int[] starts, @NotNull int[] ends, int parentStart, int parentEnd) {
+        checkColumns(starts, ends);
+        int size = starts.length;
+        long parentOpen = lessThan(parentEnd, EpochDates.OPEN_END) ^ 1;
+        long[] mask = new long[words(size)];
+        byte[] flags = new byte[Math.min(size, BLOCK)];
+        for (int from = 0; from < size; from += BLOCK) {
+            int length = Math.min(BLOCK, size - from);
+            for (int i = 0; i < length; i++) {
+                int childEnd = ends[from + i];
+                long endIncluded = parentOpen | (lessThan(childEnd, EpochDates.OPEN_END) & (lessThan(parentEnd, childEnd) ^ 1));
+                flags[i] = (byte) ((lessThan(starts[from + i], parentStart) ^ 1) & endIncluded);
+            }
+            pack(flags, length, mask, from);
+        }
+        return mask;
+    }
+
+    /**
+     * Come {@link EpochDates#isBetweenPeriod(int, int, int)} su ogni riga.
+     *
+     * @param dates     giorni da controllare, non null
+     * @param startDate giorno di inizio periodo, incluso
+     * @param endDate   giorno di fine periodo, incluso
+     * @return bitmask delle righe comprese nel periodo
+     */
+    public static long[] between(@NotNull int[] dates, int startDate, int endDate) {
+        int size = dates.length;
+        long[] mask = new long[words(size)];
+        byte[] flags = new byte[Math.min(size, BLOCK)];
+        for (int from = 0; from < size; from += BLOCK) {
+            int length = Math.min(BLOCK, size - from);
+            for (int i = 0; i < length; i++) {
+                flags[i] = (byte) inRange(dates[from + i], startDate, endDate);
+            }
+            pack(flags, length, mask, from);
+        }
+        return mask;
+    }
+
+    /**
+     * @param mask bitmask, non null
+     * @return numero di righe selezionate
+     */
+    public static int count(@NotNull long[] mask) {
+        int count = 0;
+        for (long word : mask) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    /**
+     * @param mask bitmask, non null
+     * @return indici delle righe selezionate, in ordine crescente
+     */
+    public static int[] indexes(@NotNull long[] mask) {
+        int[] indexes = new int[count(mask)];
+        int next = 0;
+        for (int word = 0; word < mask.length; word++) {
+            long bits = mask[word];
+            while (bits != 0) {
+                indexes[next++] = (word << 6) + Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+            }
+        }
+        return indexes;
+    }
+
+    /**
+     * @return 1 se a è minore di b, 0 altrimenti: il segno della differenza calcolata in long, senza overflow
+     */
+    private static long lessThan(int a, int b) {
+        return ((long) a - b) >>> 63;
+    }
+
+    /**
+     * @return 1 se date è compreso tra start ed end inclusi, 0 altrimenti
+     */
+    private static long inRange(int date, int start, int end) {
+        return (lessThan(date, start) | lessThan(end, date)) ^ 1;
+    }
+
+    /**
+     * Impacchetta i primi length byte 0/1 di flags nella bitmask, a partire dalla riga from, multiplo di 64.
+     */
+    private static void pack(byte[] flags, int length, long[] mask, int from) {
+        for (int base = 0; base < length; base += 64) {
+            int limit = Math.min(64, length - base);
+            long bits = 0;
+            for (int bit = 0; bit < limit; bit++) {
+                bits |= (long) flags[base + bit] << bit;
+            }
+            mask[(from + base) >>> 6] = bits;
+        }
+    }
+
+    private static int words(int size) {
+        return (size + 63) >>> 6;
+    }
+
+    private static void checkColumns(int[] starts, int[] ends) {
+        if (starts.length != ends.length)
+            throw new IllegalArgumentException("Start and end columns must have the same length.");
+    }
+
+}
@@ -0,0 +1,215 @@
+import jakarta.annotation.Nullable;
+import jakarta.validation.constraints.NotNull;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+
+/**
+ * Versione primitiva dei controlli su date-time e time di {@link DateUtility}. I date-time sono secondi o millisecondi
+ * dall'epoch in ora locale, cioè {@code LocalDateTime.toEpochSecond(ZoneOffset.UTC)}; i time sono millisecondi dalla
+ * mezzanotte di tipo {@code int}. I confronti non dipendono dall'unità, purché sia la stessa per tutti i parametri.
+ * <br>
+ * Il date-time null, cioè il periodo aperto, è rappresentato da {@link #OPEN_END}.
+ */
+public class EpochDateTimes {
+
+    /**
+     * Fine di un periodo aperto, equivalente al date-time null
+     */
+    public static final long OPEN_END = Long.MAX_VALUE;
+
+    static final long SECONDS_PER_DAY = 86_400L;
+    static final int MILLIS_PER_DAY = 86_400_000;
+
+    /**
+     * Converte un date-time in secondi dall'epoch in ora locale, troncando le frazioni di secondo.
+     *
+     * @param dateTime date-time, può essere null
+     * @return secondi dall'epoch, {@link #OPEN_END} se il date-time è null
+     */
+    public static long toEpochSecond(@Nullable LocalDateTime dateTime) {
+        return dateTime == null ? OPEN_END : dateTime.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    /**
+     * Converte un date-time in millisecondi dall'epoch in ora locale, troncando le frazioni di millisecondo.
+     *
+     * @param dateTime date-time, può essere null
+     * @return millisecondi dall'epoch, {@link #OPEN_END} se il date-time è null
+     */
+    public static long toEpochMilli(@Nullable LocalDateTime dateTime) {
+        return dateTime == null
+                ? OPEN_END
+                : Math.addExact(Math.multiplyExact(dateTime.toEpochSecond(ZoneOffset.UTC), 1000L), dateTime.getNano() / 1_000_000);
+    }
+
+    /**
+     * Converte secondi dall'epoch in ora locale in date-time.
+     *
+     * @param epochSecond secondi dall'epoch
+     * @return date-time, null se {@link #OPEN_END}
+     */
+    public static LocalDateTime ofEpochSecond(long epochSecond) {
+        return epochSecond == OPEN_END ? null : LocalDateTime.ofEpochSecond(epochSecond, 0, ZoneOffset.UTC);
+    }
+
+    /**
+     * Converte millisecondi dall'epoch in ora locale in date-time.
+     *
+     * @param epochMilli millisecondi dall'epoch
+     * @return date-time, null se {@link #OPEN_END}
+     */
+    public static LocalDateTime ofEpochMilli(long epochMilli) {
+        return epochMilli == OPEN_END
+                ? null
+                : LocalDateTime.ofEpochSecond(Math.floorDiv(epochMilli, 1000L), (int) Math.floorMod(epochMilli, 1000L) * 1_000_000, ZoneOffset.UTC);
+    }
+
+    /**
+     * Converte un time in millisecondi dalla mezzanotte, troncando le frazioni di millisecondo.
+     *
+     * @param time time
+     * @return millisecondi dalla mezzanotte
+     */
+    public static int toMillisOfDay(@NotNull LocalTime time) {
+        return (int) (time.toNanoOfDay() / 1_000_000);
+    }
+
+    /**
+     * Come {@link DateUtility#getLocalTimeFromMillis(long)}, riportato nell'intervallo di un giorno.
+     *
+     * @param millis millisecondi da aggiungere alla mezzanotte
+     * @return millisecondi dalla mezzanotte, da 0 a 86.399.999
+     */
+    public static int normalizeMillisOfDay(long millis) {
+        return Math.floorMod(millis, MILLIS_PER_DAY);
+    }
+
+    /**
+     * Come {@link DateUtility#createDateTime(LocalDate, LocalTime)}, in secondi dall'epoch.
+     *
+     * @param epochDay    giorni dall'epoch
+     * @param millisOfDay millisecondi dalla mezzanotte, troncati al secondo
+     * @return secondi dall'epoch in ora locale
+     */
+    public static long createDateTime(int epochDay, int millisOfDay) {
+        return epochDay * SECONDS_PER_DAY + millisOfDay / 1000;
+    }
+
+    /**
+     * Come {@link DateUtility#createDateTime(LocalDate, LocalTime)}, in millisecondi dall'epoch.
+     *
+     * @param epochDay    giorni dall'epoch
+     * @param millisOfDay millisecondi dalla mezzanotte
+     * @return millisecondi dall'epoch in ora locale
+     */
+    public static long createDateTimeMillis(int epochDay, int millisOfDay) {
+        return (long) epochDay * MILLIS_PER_DAY + millisOfDay;
+    }
+
+    /**
+     * Come {@link DateUtility#checkCrossDay(LocalDateTime, LocalDateTime)}, in secondi dall'epoch.
+     *
+     * @param inizio inizio del periodo
+     * @param fine   fine del periodo
+     * @return fine in ingresso, o fine + 1gg
+     */
+    public static long checkCrossDay(long inizio, long fine) {
+        return fine <= inizio ? fine + SECONDS_PER_DAY : fine;
+    }
+
+    /**
+     * Come {@link DateUtility#checkCrossDay(LocalDateTime, LocalDateTime)}, in millisecondi dall'epoch.
+     *
+     * @param inizio inizio del periodo
+     * @param fine   fine del periodo
+     * @return fine in ingresso, o fine + 1gg
+     */
+    public static long checkCrossDayMillis(long inizio, long fine) {
+        return fine <= inizio ? fine + MILLIS_PER_DAY : fine;
+    }
+
+    /**
+     * Come {@link DateUtility#isAfterOrEqual(LocalDateTime, LocalDateTime)}; vale anche per i millisecondi dalla mezzanotte.
+     *
+     * @param dateFrom date-time da controllare
+     * @param dateTo   date-time perno del controllo
+     * @return vero se dateFrom è maggiore o uguale a dateTo, falso altrimenti
+     */
+    public static boolean isAfterOrEqual(long dateFrom, long dateTo) {
+        return dateFrom >= dateTo;
+    }
+
+    /**
+     * Come {@link DateUtility#isBeforeOrEqual(LocalDateTime, LocalDateTime)}; vale anche per i millisecondi dalla mezzanotte.
+     *
+     * @param dateFrom date-time da controllare
+     * @param dateTo   date-time perno del controllo
+     * @return vero se dateFrom è minore o uguale a dateTo, falso altrimenti
+     */
+    public static boolean isBeforeOrEqual(long dateFrom, long dateTo) {
+        return dateFrom <= dateTo;
+    }
+
+    /**
+     * Come {@link DateUtility#isBetweenPeriod(LocalDateTime, LocalDateTime, LocalDateTime)}; con i millisecondi dalla
+     * mezzanotte equivale a {@link DateUtility#isBetweenPeriod(LocalTime, LocalTime, LocalTime)}.
+     *
+     * @param toCheck     date-time da controllare
+     * @param startPeriod date-time inizio periodo, incluso
+     * @param endPeriod   date-time fine periodo, incluso
+     * @return vero se toCheck è incluso nel periodo, falso altrimenti
+     */
+    public static boolean isBetweenPeriod(long toCheck, long startPeriod, long endPeriod) {
+        return toCheck >= startPeriod && toCheck <= endPeriod;
+    }
+
+    /**
+     * Come il predicato di {@link DateUtility#getPredicateDatesInPeriod(LocalDateTime, LocalDateTime)}.
+     *
+     * @param d1          inizio del periodo da controllare
+     * @param d2          fine del periodo da controllare, {@link #OPEN_END} se aperto
+     * @param startPeriod inizio periodo
+     * @param endPeriod   fine periodo
+     * @return vero se vi è intersezione, falso altrimenti
+     */
+    public static boolean isInPeriod(long d1, long d2, long startPeriod, long endPeriod) {
+        return (d1 < startPeriod && (d2 == OPEN_END || d2 > endPeriod))
+                || isBetweenPeriod(d1, startPeriod, endPeriod)
+                || (d2 != OPEN_END && isBetweenPeriod(d2, startPeriod, endPeriod));
+    }
+
+    /**
+     * Come il predicato di {@link DateUtility#entityInPeriod(LocalDateTime, LocalDateTime, java.util.function.Function, java.util.function.Function)}.
+     *
+     * @param startEntityValidity inizio entità
+     * @param endEntityValidity   fine entità, {@link #OPEN_END} se aperta
+     * @param startPeriod         inizio periodo controllo
+     * @param endPeriod           fine periodo controllo
+     * @return vero se l'entità inizia nel periodo, finisce nel periodo o è più grande del periodo; falso altrimenti
+     * @throws IllegalArgumentException se un periodo ha fine precedente all'inizio
+     */
+    public static boolean entityInPeriod(long startEntityValidity, long endEntityValidity, long startPeriod, long endPeriod) {
+        if (startPeriod > endPeriod || (endEntityValidity != OPEN_END && startEntityValidity > endEntityValidity))
+            throw new IllegalArgumentException("End period must be greater or equal start period.");
+        return !(startEntityValidity > endPeriod || (endEntityValidity != OPEN_END && endEntityValidity < startPeriod));
+    }
+
+    /**
+     * Controlla che un periodo di date-time sia incluso in un altro, con le regole di
+     * {@link DateUtility#checkInclusiveElement(LocalDate, LocalDate, LocalDate, LocalDate)}.
+     *
+     * @param childStart  inizio periodo che deve essere incluso
+     * @param childEnd    fine periodo che deve essere incluso, {@link #OPEN_END} se aperto
+     * @param parentStart inizio periodo includente
+     * @param parentEnd   fine periodo includente, {@link #OPEN_END} se aperto
+     * @return vero se incluso, falso altrimenti
+     */
+    public static boolean checkInclusiveElement(long childStart, long childEnd, long parentStart, long parentEnd) {
+        return !(childStart < parentStart
+                || parentEnd != OPEN_END && (childEnd == OPEN_END || childEnd > parentEnd));
+    }
+
+}
@@ -0,0 +1,155 @@
+import jakarta.annotation.Nullable;
+import jakarta.validation.constraints.NotNull;
+
+import java.time.LocalDate;
+
+/**
+ * Versione primitiva dei controlli su date di {@link DateUtility}, su giorni dall'epoch di tipo {@code int}.
+ * Le regole sono le stesse dei metodi su {@link LocalDate}; la data null, cioè il periodo aperto, è rappresentata da
+ * {@link #OPEN_END}. I metodi di conversione permettono di mescolare le due API.
+ */
+public class EpochDates {
+
+    /**
+     * Fine di un periodo aperto, equivalente alla data null
+     */
+    public static final int OPEN_END = Integer.MAX_VALUE;
+
+    /**
+     * Converte una data in giorni dall'epoch.
+     *
+     * @param date data, può essere null
+     * @return giorni dall'epoch, {@link #OPEN_END} se la data è null
+     */
+    public static int toEpochDay(@Nullable LocalDate date) {
+        return date == null ? OPEN_END : Math.toIntExact(date.toEpochDay());
+    }
+
+    /**
+     * Converte giorni dall'epoch in data.
+     *
+     * @param epochDay giorni dall'epoch
+     * @return data, null se {@link #OPEN_END}
+     */
+    public static LocalDate toLocalDate(int epochDay) {
+        return epochDay == OPEN_END ? null : LocalDate.ofEpochDay(epochDay);
+    }
+
+    /**
+     * Come {@link DateUtility#isAfterOrEqual(LocalDate, LocalDate)}.
+     *
+     * @param dateFrom giorno che deve essere successivo o uguale
+     * @param dateTo   giorno perno del controllo
+     * @return vero se dateFrom è maggiore o uguale a dateTo, falso altrimenti
+     */
+    public static boolean isAfterOrEqual(int dateFrom, int dateTo) {
+        return dateFrom >= dateTo;
+    }
+
+    /**
+     * Come {@link DateUtility#isBeforeOrEqual(LocalDate, LocalDate)}.
+     *
+     * @param dateFrom giorno da controllare
+     * @param dateTo   giorno perno del controllo
+     * @return vero se dateFrom è minore o uguale a dateTo, falso altrimenti
+     */
+    public static boolean isBeforeOrEqual(int dateFrom, int dateTo) {
+        return dateFrom <= dateTo;
+    }
+
+    /**
+     * Come {@link DateUtility#isBetweenPeriod(LocalDate, LocalDate, LocalDate)}.
+     *
+     * @param toCheck   giorno da controllare
+     * @param startDate giorno di inizio periodo, incluso
+     * @param endDate   giorno di fine periodo, incluso
+     * @return vero se toCheck è incluso nel periodo, falso altrimenti
+     */
+    public static boolean isBetweenPeriod(int toCheck, int startDate, int endDate) {
+        return toCheck >= startDate && toCheck <= endDate;
+    }
+
+    /**
+     * Come il predicato di {@link DateUtility#getPredicateDatesInPeriod(LocalDate, LocalDate)}: vero nel caso in cui vi sia
+     * una qualsiasi intersezione tra il periodo [d1, d2] e il periodo di controllo.
+     *
+     * @param d1          inizio del periodo da controllare
+     * @param d2          fine del periodo da controllare, {@link #OPEN_END} se aperto
+     * @param startPeriod inizio periodo
+     * @param endPeriod   fine periodo
+     * @return vero se vi è intersezione, falso altrimenti
+     */
+    public static boolean isInPeriod(int d1, int d2, int startPeriod, int endPeriod) {
+        return (d1 < startPeriod && (d2 == OPEN_END || d2 > endPeriod))
+                || isBetweenPeriod(d1, startPeriod, endPeriod)
+                || (d2 != OPEN_END && isBetweenPeriod(d2, startPeriod, endPeriod));
+    }
+
+    /**
+     * Come il predicato di {@link DateUtility#entityInPeriod(LocalDate, LocalDate, java.util.function.Function, java.util.function.Function)}.
+     *
+     * @param startEntityValidity inizio entità
+     * @param endEntityValidity   fine entità, {@link #OPEN_END} se aperta
+     * @param startPeriod         inizio periodo controllo
+     * @param endPeriod           fine periodo controllo
+     * @return vero se l'entità inizia nel periodo, finisce nel periodo o è più grande del periodo; falso altrimenti
+     * @throws IllegalArgumentException se un periodo ha fine precedente all'inizio
+     */
+    public static boolean entityInPeriod(int startEntityValidity, int endEntityValidity, int startPeriod, int endPeriod) {
+        if (startPeriod > endPeriod || (endEntityValidity != OPEN_END && startEntityValidity > endEntityValidity))
+            throw new IllegalArgumentException("End period must be greater or equal start period.");
+        return !(startEntityValidity > endPeriod || (endEntityValidity != OPEN_END && endEntityValidity < startPeriod));
+    }
+
+    /**
+     * Come {@link DateUtility#checkInclusiveElement(LocalDate, LocalDate, LocalDate, LocalDate)}.
+     *
+     * @param childStart  inizio periodo che deve essere incluso
+     * @param childEnd    fine periodo che deve essere incluso, {@link #OPEN_END} se aperto
+     * @param parentStart inizio periodo includente
+     * @param parentEnd   fine periodo includente, {@link #OPEN_END} se aperto
+     * @return vero se incluso, falso altrimenti
+     */
+    public static boolean checkInclusiveElement(int childStart, int childEnd, int parentStart, int parentEnd) {
+        return !checkNotInclusive(childStart, childEnd, parentStart, parentEnd);
+    }
+
+    /**
+     * Come il predicato di {@link DateUtility#checkNotInclusive(LocalDate, LocalDate)}.
+     *
+     * @param childStart  inizio periodo che deve essere incluso
+     * @param childEnd    fine periodo che deve essere incluso, {@link #OPEN_END} se aperto
+     * @param parentStart inizio periodo includente
+     * @param parentEnd   fine periodo includente, {@link #OPEN_END} se aperto
+     * @return vero se non incluso, falso altrimenti
+     */
+    public static boolean checkNotInclusive(int childStart, int childEnd, int parentStart, int parentEnd) {
+        return childStart < parentStart
+                || parentEnd != OPEN_END && (childEnd == OPEN_END || childEnd > parentEnd);
+    }
+
+    /**
+     * Giorno dall'epoch del date-time in ingresso, espresso in secondi dall'epoch in ora locale.
+     *
+     * @param epochSecond secondi dall'epoch in ora locale
+     * @return giorni dall'epoch
+     */
+    public static int ofEpochSecond(long epochSecond) {
+        return Math.toIntExact(Math.floorDiv(epochSecond, EpochDateTimes.SECONDS_PER_DAY));
+    }
+
+    /**
+     * Converte un array di date in giorni dall'epoch.
+     *
+     * @param dates date, possono essere null
+     * @return giorni dall'epoch, {@link #OPEN_END} per le date null
+     */
+    public static int[] toEpochDays(@NotNull LocalDate[] dates) {
+        int[] epochDays = new int[dates.length];
+        for (int i = 0; i < dates.length; i++) {
+            epochDays[i] = toEpochDay(dates[i]);
+        }
+        return epochDays;
+    }
+
+}
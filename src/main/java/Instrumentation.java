@@ -0,0 +1,210 @@
+import jakarta.annotation.Nullable;
+import jakarta.validation.constraints.NotNull;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Strumentazione opzionale delle operazioni costose di {@link DateUtility}, {@link Utility} e {@link PeriodIndex}: per ogni
+ * operazione conta chiamate, elementi in ingresso e durata, con un istogramma delle durate in potenze di due di
+ * nanosecondi, ed emette un evento JDK Flight Recorder {@code jutils.Operation}.
+ * <br>
+ * Si attiva all'avvio con {@code -Djutils.instrumentation=true}. Il flag è una costante, quindi da disattivata il JIT
+ * elimina le chiamate e il costo è nullo; i contatori sono {@link LongAdder}, senza contesa tra thread.
+ * <pre>
+ *     {@code var measure = Instrumentation.start();}
+ *     {@code ...}
+ *     {@code Instrumentation.stop(Instrumentation.Operation.GET_SUB_MAP, keys.size(), measure);}
+ * </pre>
+ */
+public final class Instrumentation {
+
+    /**
+     * Operazioni strumentate
+     */
+    public enum Operation {
+        /**
+         * {@link DateUtility#checkOverlapDates}, per numero di elementi
+         */
+        CHECK_OVERLAP_DATES,
+        /**
+         * {@link DateUtility#checkOverlapDateTimes}, per numero di elementi
+         */
+        CHECK_OVERLAP_DATE_TIMES,
+        /**
+         * {@link DateUtility#createSetDates}, per numero di date create
+         */
+        CREATE_SET_DATES,
+        /**
+         * {@link Utility#getSubMap}, per numero di chiavi
+         */
+        GET_SUB_MAP,
+        /**
+         * Costruzione di un {@link PeriodIndex}, per numero di entità
+         */
+        PERIOD_INDEX_BUILD,
+        /**
+         * Query su un {@link PeriodIndex}, per numero di entità indicizzate
+         */
+        PERIOD_INDEX_QUERY
+    }
+
+    /**
+     * Valori accumulati per un'operazione
+     *
+     * @param calls      chiamate
+     * @param inputSize  elementi in ingresso, sommati su tutte le chiamate
+     * @param totalNanos durata totale
+     * @param maxNanos   durata massima di una chiamata
+     * @param histogram  chiamate per durata: la posizione i conta le durate tra 2^(i-1) e 2^i - 1 nanosecondi
+     */
+    public record Stats(long calls, long inputSize, long totalNanos, long maxNanos, long[] histogram) {
+
+        public Stats {
+            histogram = histogram.clone();
+        }
+
+        /**
+         * @return copia dell'istogramma delle durate
+         */
+        @Override
+        public long[] histogram() {
+            return histogram.clone();
+        }
+    }
+
+    /**
+     * Misura in corso di un'operazione, restituita da {@link #start()}: l'evento JFR è creato e iniziato all'avvio della
+     * misura, così la sua durata e il suo istante di inizio sono quelli dell'operazione.
+     */
+    public static final class Measure {
+
+        private final OperationEvent event;
+        private final long startNanos;
+
+        private Measure() {
+            event = new OperationEvent();
+            event.begin();
+            startNanos = System.nanoTime();
+        }
+    }
+
+    private static final boolean ENABLED = Boolean.getBoolean("jutils.instrumentation");
+    private static final int BUCKETS = 64;
+    private static final Map<Operation, Metric> METRICS = new EnumMap<>(Operation.class);
+
+    static {
+        for (var operation : Operation.values()) {
+            METRICS.put(operation, new Metric());
+        }
+    }
+
+    private Instrumentation() {
+    }
+
+    /**
+     * @return vero se la strumentazione è attiva, falso altrimenti
+     */
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    /**
+     * Inizia la misura di un'operazione.
+     *
+     * @return misura da passare a {@link #stop(Operation, long, Measure)}, null se la strumentazione non è attiva
+     */
+    public static @Nullable Measure start() {
+        return ENABLED ? new Measure() : null;
+    }
+
+    /**
+     * Chiude la misura di un'operazione, aggiornando i contatori ed emettendo l'evento JFR se registrato.
+     *
+     * @param operation operazione, non null
+     * @param inputSize elementi in ingresso
+     * @param measure   valore restituito da {@link #start()}
+     */
+    public static void stop(@NotNull Operation operation, long inputSize, @Nullable Measure measure) {
+        if (measure == null) {
+            return;
+        }
+        long nanos = System.nanoTime() - measure.startNanos;
+        var event = measure.event;
+        event.end();
+        METRICS.get(operation).record(inputSize, nanos);
+        if (event.shouldCommit()) {
+            event.operation = operation.name();
+            event.inputSize = inputSize;
+            event.commit();
+        }
+    }
+
+    /**
+     * @param operation operazione, non null
+     * @return valori accumulati dall'avvio o dall'ultimo {@link #reset()}
+     */
+    public static Stats stats(@NotNull Operation operation) {
+        return METRICS.get(operation).stats();
+    }
+
+    /**
+     * @return valori accumulati per tutte le operazioni
+     */
+    public static Map<Operation, Stats> snapshot() {
+        Map<Operation, Stats> snapshot = new EnumMap<>(Operation.class);
+        METRICS.forEach((operation, metric) -> snapshot.put(operation, metric.stats()));
+        return snapshot;
+    }
+
+    /**
+     * Azzera tutti i contatori.
+     */
+    public static void reset() {
+        METRICS.values().forEach(Metric::reset);
+    }
+
+    private static final class Metric {
+
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder inputSize = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+        private final LongAdder[] histogram = new LongAdder[BUCKETS];
+
+        private Metric() {
+            for (int i = 0; i < BUCKETS; i++) {
+                histogram[i] = new LongAdder();
+            }
+        }
+
+        private void record(long size, long nanos) {
+            calls.increment();
+            inputSize.add(size);
+            totalNanos.add(nanos);
+            maxNanos.accumulate(nanos);
+            histogram[Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(Math.max(nanos, 0)))].increment();
+        }
+
+        private Stats stats() {
+            long[] counts = new long[BUCKETS];
+            for (int i = 0; i < BUCKETS; i++) {
+                counts[i] = histogram[i].sum();
+            }
+            return new Stats(calls.sum(), inputSize.sum(), totalNanos.sum(), maxNanos.get(), counts);
+        }
+
+        private void reset() {
+            calls.reset();
+            inputSize.reset();
+            totalNanos.reset();
+            maxNanos.reset();
+            for (var bucket : histogram) {
+                bucket.reset();
+            }
+        }
+    }
+
+}
@@ -0,0 +1,110 @@
+import jakarta.validation.constraints.NotNull;
+
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Indice costruito una volta su N collezioni di riferimento, per verificare rapidamente quali di esse hanno almeno un
+ * elemento in comune con una collezione candidata, come {@link Utility#haveAtLeastOneElementInCommon(Collection, Collection)}.
+ * <br>
+ * Ogni elemento di riferimento è associato alle posizioni delle collezioni che lo contengono, quindi una query costa
+ * una ricerca per elemento della candidata, senza ricalcolare gli hash del lato di riferimento.
+ * <pre>
+ *     {@code IntersectionIndex<String> index = IntersectionIndex.of(List.of(permessiRuolo1, permessiRuolo2));}
+ *     {@code boolean abilitato = index.intersectsAny(permessiUtente);}
+ * </pre>
+ *
+ * @param <T> tipo elementi
+ */
+public final class IntersectionIndex<T> {
+
+    private final Map<T, BitSet> owners;
+    private final int size;
+
+    private IntersectionIndex(List<? extends Collection<? extends T>> references) {
+        this.owners = new HashMap<>();
+        this.size = references.size();
+        for (int i = 0; i < references.size(); i++) {
+            for (T element : references.get(i)) {
+                owners.computeIfAbsent(element, e -> new BitSet()).set(i);
+            }
+        }
+    }
+
+    /**
+     * Costruisce l'indice sulle collezioni di riferimento.
+     *
+     * @param references collezioni di riferimento, non null
+     * @param <T>        tipo elementi
+     * @return indice
+     */
+    public static <T> IntersectionIndex<T> of(@NotNull List<? extends Collection<? extends T>> references) {
+        return new IntersectionIndex<>(references);
+    }
+
+    /**
+     * Controlla che la candidata abbia almeno un elemento in comune con almeno una delle collezioni di riferimento.
+     *
+     * @param candidate collezione candidata, non null
+     * @return vero se esiste un elemento in comune, falso altrimenti
+     */
+    public boolean intersectsAny(@NotNull Collection<? extends T> candidate) {
+        for (T element : candidate) {
+            if (owners.containsKey(element)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Controlla che la candidata abbia almeno un elemento in comune con una specifica collezione di riferimento.
+     *
+     * @param candidate collezione candidata, non null
+     * @param reference posizione della collezione di riferimento
+     * @return vero se esiste un elemento in comune, falso altrimenti
+     */
+    public boolean intersects(@NotNull Collection<? extends T> candidate, int reference) {
+        if (reference < 0 || reference >= size) {
+            throw new IndexOutOfBoundsException(reference);
+        }
+        for (T element : candidate) {
+            BitSet references = owners.get(element);
+            if (references != null && references.get(reference)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Restituisce le posizioni delle collezioni di riferimento che hanno almeno un elemento in comune con la candidata.
+     *
+     * @param candidate collezione candidata, non null
+     * @return posizioni delle collezioni in comune, come bitset
+     */
+    public BitSet matching(@NotNull Collection<? extends T> candidate) {
+        BitSet matching = new BitSet(size);
+        for (T element : candidate) {
+            BitSet references = owners.get(element);
+            if (references != null) {
+                matching.or(references);
+                if (matching.cardinality() == size) {
+                    break;
+                }
+            }
+        }
+        return matching;
+    }
+
+    /**
+     * @return numero di collezioni di riferimento
+     */
+    public int size() {
+        return size;
+    }
+
+}
@@ -0,0 +1,309 @@
+import jakarta.annotation.Nullable;
+import jakarta.validation.constraints.NotNull;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+import java.util.stream.IntStream;
+
+/**
+ * Join tra due collezioni di periodi, ad esempio contratti (figli) e accordi quadro (padri), con un ordinamento per inizio
+ * dei due lati e una scansione unica, al posto del doppio ciclo su
+ * {@link DateUtility#checkInclusiveElement(LocalDate, LocalDate, LocalDate, LocalDate)}.
+ * <br>
+ * Le regole sono quelle dei metodi di {@link DateUtility}: un figlio è contenuto in un padre se inizia dopo o insieme a
+ * esso e, quando il padre ha una fine, finisce prima o insieme a esso; il figlio aperto è contenuto solo in padri aperti.
+ * Due periodi si intersecano se hanno almeno un istante in comune, estremi inclusi, come in
+ * {@link DateUtility#entityInPeriod(LocalDate, LocalDate, Function, Function)}.
+ * <pre>
+ *     {@code List<IntervalJoin.Match<ContrattoDto, AccordoDto>> matches = IntervalJoin.joinDates(contratti, ContrattoDto::getDataInizio, ContrattoDto::getDataFine,
+ *             accordi, AccordoDto::getDataInizio, AccordoDto::getDataFine, IntervalJoin.Mode.CONTAINING, false);}
+ * </pre>
+ */
+public class IntervalJoin {
+
+    /**
+     * Condizione di join
+     */
+    public enum Mode {
+        /**
+         * Il padre contiene interamente il figlio
+         */
+        CONTAINING,
+        /**
+         * Il padre e il figlio hanno almeno un istante in comune
+         */
+        INTERSECTING
+    }
+
+    /**
+     * Coppia figlio padre che soddisfa la condizione di join
+     *
+     * @param child  figlio
+     * @param parent padre
+     * @param <C>    tipo figli
+     * @param <P>    tipo padri
+     */
+    public record Match<C, P>(C child, P parent) {
+    }
+
+    private static final long OPEN_END = Long.MAX_VALUE;
+    private static final int PARALLEL_THRESHOLD = 1 << 13;
+
+    /**
+     * Esegue il join tra periodi di date.
+     *
+     * @param children         figli, non null
+     * @param childStart       getter inizio figlio, non null; il valore restituito non può essere null
+     * @param childEnd         getter fine figlio, non null; il valore restituito può essere null
+     * @param parents          padri, non null
+     * @param parentStart      getter inizio padre, non null; il valore restituito non può essere null
+     * @param parentEnd        getter fine padre, non null; il valore restituito può essere null
+     * @param mode             condizione di join
+     * @param parallel         vero per dividere i figli tra i thread del {@link ForkJoinPool} comune sui grandi volumi
+     * @param <C>              tipo figli
+     * @param <P>              tipo padri
+     * @return coppie ordinate per inizio del figlio e, a parità di figlio, per inizio del padre
+     * @throws IllegalArgumentException se un periodo ha fine precedente all'inizio
+     */
+    public static <C, P> List<Match<C, P>> joinDates(@NotNull Collection<C> children,
+                                                     @NotNull Function<C, LocalDate> childStart,
+                                                     @NotNull Function<C, LocalDate> childEnd,
+                                                     @NotNull Collection<P> parents,
+                                                     @NotNull Function<P, LocalDate> parentStart,
+                                                     @NotNull Function<P, LocalDate> parentEnd,
+                                                     @NotNull Mode mode,
+                                                     boolean parallel) {
+        return new Sides<>(children, childStart, childEnd, parents, parentStart, parentEnd, LocalDate::toEpochDay).join(mode, parallel);
+    }
+
+    /**
+     * Esegue il join tra periodi di date-time, come {@link #joinDates}.
+     *
+     * @param children    figli, non null
+     * @param childStart  getter inizio figlio, non null; il valore restituito non può essere null
+     * @param childEnd    getter fine figlio, non null; il valore restituito può essere null
+     * @param parents     padri, non null
+     * @param parentStart getter inizio padre, non null; il valore restituito non può essere null
+     * @param parentEnd   getter fine padre, non null; il valore restituito può essere null
+     * @param mode        condizione di join
+     * @param parallel    vero per dividere i figli tra i thread del {@link ForkJoinPool} comune sui grandi volumi
+     * @param <C>         tipo figli
+     * @param <P>         tipo padri
+     * @return coppie ordinate per inizio del figlio e, a parità di figlio, per inizio del padre
+     * @throws IllegalArgumentException se un periodo ha fine precedente all'inizio
+     */
+    public static <C, P> List<Match<C, P>> joinDateTimes(@NotNull Collection<C> children,
+                                                         @NotNull Function<C, LocalDateTime> childStart,
+                                                         @NotNull Function<C, LocalDateTime> childEnd,
+                                                         @NotNull Collection<P> parents,
+                                                         @NotNull Function<P, LocalDateTime> parentStart,
+                                                         @NotNull Function<P, LocalDateTime> parentEnd,
+                                                         @NotNull Mode mode,
+                                                         boolean parallel) {
+        return new Sides<>(children, childStart, childEnd, parents, parentStart, parentEnd,
+                DateTimeKeys.of(parents, parentStart, parentEnd)).join(mode, parallel);
+    }
+
+    /**
+     * Restituisce i figli che non sono contenuti in nessun padre, con una ricerca binaria per figlio sulla fine massima
+     * dei padri ordinati per inizio.
+     *
+     * @param children    figli, non null
+     * @param childStart  getter inizio figlio, non null; il valore restituito non può essere null
+     * @param childEnd    getter fine figlio, non null; il valore restituito può essere null
+     * @param parents     padri, non null
+     * @param parentStart getter inizio padre, non null; il valore restituito non può essere null
+     * @param parentEnd   getter fine padre, non null; il valore restituito può essere null
+     * @param <C>         tipo figli
+     * @param <P>         tipo padri
+     * @return figli orfani, nell'ordine della collezione
+     * @throws IllegalArgumentException se un periodo ha fine precedente all'inizio
+     */
+    public static <C, P> List<C> orphanDates(@NotNull Collection<C> children,
+                                             @NotNull Function<C, LocalDate> childStart,
+                                             @NotNull Function<C, LocalDate> childEnd,
+                                             @NotNull Collection<P> parents,
+                                             @NotNull Function<P, LocalDate> parentStart,
+                                             @NotNull Function<P, LocalDate> parentEnd) {
+        return new Sides<>(children, childStart, childEnd, parents, parentStart, parentEnd, LocalDate::toEpochDay).orphans();
+    }
+
+    /**
+     * Restituisce i figli che non sono contenuti in nessun padre, come {@link #orphanDates}.
+     *
+     * @param children    figli, non null
+     * @param childStart  getter inizio figlio, non null; il valore restituito non può essere null
+     * @param childEnd    getter fine figlio, non null; il valore restituito può essere null
+     * @param parents     padri, non null
+     * @param parentStart getter inizio padre, non null; il valore restituito non può essere null
+     * @param parentEnd   getter fine padre, non null; il valore restituito può essere null
+     * @param <C>         tipo figli
+     * @param <P>         tipo padri
+     * @return figli orfani, nell'ordine della collezione
+     * @throws IllegalArgumentException se un periodo ha fine precedente all'inizio
+     */
+    public static <C, P> List<C> orphanDateTimes(@NotNull Collection<C> children,
+                                                 @NotNull Function<C, LocalDateTime> childStart,
+                                                 @NotNull Function<C, LocalDateTime> childEnd,
+                                                 @NotNull Collection<P> parents,
+                                                 @NotNull Function<P, LocalDateTime> parentStart,
+                                                 @NotNull Function<P, LocalDateTime> parentEnd) {
+        return new Sides<>(children, childStart, childEnd, parents, parentStart, parentEnd,
+                DateTimeKeys.of(parents, parentStart, parentEnd)).orphans();
+    }
+
+    /**
+     * I due lati del join come chiavi primitive: i padri ordinati per inizio, i figli nell'ordine della collezione con
+     * l'ordinamento per inizio a parte.
+     */
+    private static final class Sides<C, P> {
+
+        private final Object[] children;
+        private final long[] childStarts;
+        private final long[] childEnds;
+        private final int[] childOrder;
+        private final Object[] parents;
+        private final long[] parentStarts;
+        private final long[] parentEnds;
+
+        private <V extends Comparable<? super V>> Sides(Collection<C> children, Function<C, V> childStart, Function<C, V> childEnd,
+                                                       Collection<P> parents, Function<P, V> parentStart, Function<P, V> parentEnd,
+                                                       ToLongFunction<V> keys) {
+            this.children = new Object[children.size()];
+            this.childStarts = new long[children.size()];
+            this.childEnds = new long[children.size()];
+            read(children, childStart, childEnd, keys, this.children, childStarts, childEnds);
+            this.childOrder = PrimitiveSort.sortedIndexes(childStarts);
+            Object[] unsortedParents = new Object[parents.size()];
+            long[] unsortedStarts = new long[parents.size()];
+            long[] unsortedEnds = new long[parents.size()];
+            read(parents, parentStart, parentEnd, keys, unsortedParents, unsortedStarts, unsortedEnds);
+            int[] order = PrimitiveSort.sortedIndexes(unsortedStarts);
+            this.parents = new Object[order.length];
+            for (int i = 0; i < order.length; i++) {
+                this.parents[i] = unsortedParents[order[i]];
+            }
+            this.parentStarts = PrimitiveSort.permute(unsortedStarts, order);
+            this.parentEnds = PrimitiveSort.permute(unsortedEnds, order);
+        }
+
+        private static <T, V extends Comparable<? super V>> void read(Collection<T> collection, Function<T, V> getterStart,
+                                                                      Function<T, V> getterEnd, ToLongFunction<V> keys,
+                                                                      Object[] items, long[] starts, long[] ends) {
+            int i = 0;
+            for (var t : collection) {
+                V start = Objects.requireNonNull(getterStart.apply(t), "Start must not be null.");
+                @Nullable V end = getterEnd.apply(t);
+                if (end != null && start.compareTo(end) > 0)
+                    throw new IllegalArgumentException("End period must be greater or equal start period.");
+                items[i] = t;
+                starts[i] = keys.applyAsLong(start);
+                ends[i] = end == null ? OPEN_END : keys.applyAsLong(end);
+                i++;
+            }
+        }
+
+        private List<Match<C, P>> join(Mode mode, boolean parallel) {
+            int size = childOrder.length;
+            if (!parallel || size < PARALLEL_THRESHOLD) {
+                List<Match<C, P>> matches = new ArrayList<>();
+                joinRange(0, size, mode, matches);
+                return matches;
+            }
+            int chunks = Math.min(size, ForkJoinPool.getCommonPoolParallelism() * 4);
+            List<List<Match<C, P>>> parts = IntStream.range(0, chunks)
+                    .parallel()
+                    .mapToObj(k -> {
+                        List<Match<C, P>> matches = new ArrayList<>();
+                        joinRange((int) ((long) size * k / chunks), (int) ((long) size * (k + 1) / chunks), mode, matches);
+                        return matches;
+                    })
+                    .toList();
+            List<Match<C, P>> matches = new ArrayList<>(parts.stream().mapToInt(List::size).sum());
+            parts.forEach(matches::addAll);
+            return matches;
+        }
+
+        /**
+         * Scansione dei figli di posizione [from, to) nell'ordinamento per inizio. I padri attivi sono quelli già iniziati
+         * che non sono ancora finiti all'inizio del figlio corrente, in ordine di inizio: solo loro possono contenerlo.
+         */
+        private void joinRange(int from, int to, Mode mode, List<Match<C, P>> matches) {
+            if (from >= to) {
+                return;
+            }
+            int[] active = new int[parents.length];
+            int activeSize = 0;
+            int next = 0;
+            for (int k = from; k < to; k++) {
+                int child = childOrder[k];
+                long start = childStarts[child];
+                long end = childEnds[child];
+                while (next < parents.length && parentStarts[next] <= start) {
+                    active[activeSize++] = next++;
+                }
+                int kept = 0;
+                for (int a = 0; a < activeSize; a++) {
+                    int parent = active[a];
+                    if (parentEnds[parent] < start) {
+                        continue;
+                    }
+                    active[kept++] = parent;
+                    if (mode == Mode.INTERSECTING || parentEnds[parent] >= end) {
+                        matches.add(match(child, parent));
+                    }
+                }
+                activeSize = kept;
+                if (mode == Mode.INTERSECTING) {
+                    // i padri che iniziano dentro il figlio lo intersecano sempre
+                    for (int parent = next; parent < parents.length && parentStarts[parent] <= end; parent++) {
+                        matches.add(match(child, parent));
+                    }
+                }
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private List<C> orphans() {
+            long[] prefixMaxEnds = new long[parents.length];
+            for (int i = 0; i < parents.length; i++) {
+                prefixMaxEnds[i] = i == 0 ? parentEnds[0] : Math.max(prefixMaxEnds[i - 1], parentEnds[i]);
+            }
+            List<C> orphans = new ArrayList<>();
+            for (int child = 0; child < children.length; child++) {
+                int started = countAtOrBefore(parentStarts, childStarts[child]);
+                if (started == 0 || prefixMaxEnds[started - 1] < childEnds[child]) {
+                    orphans.add((C) children[child]);
+                }
+            }
+            return orphans;
+        }
+
+        @SuppressWarnings("unchecked")
+        private Match<C, P> match(int child, int parent) {
+            return new Match<>((C) children[child], (P) parents[parent]);
+        }
+    }
+
+    private static int countAtOrBefore(long[] sorted, long key) {
+        int lo = 0;
+        int hi = sorted.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (sorted[mid] <= key) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+}
@@ -0,0 +1,421 @@
+import jakarta.validation.constraints.NotNull;
+
+import java.time.LocalDate;
+import java.util.AbstractSet;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NavigableSet;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+
+/**
+ * Insieme immutabile e ordinato di tutte le date tra due estremi inclusi, rappresentato solo dai due giorni dall'epoch.
+ * Appartenenza, navigazione, sotto-intervalli e dimensione sono calcolati aritmeticamente: nessuna data viene
+ * materializzata finché non la si legge.
+ * <br>
+ * Lo spliterator è dimensionato e divisibile, quindi {@code parallelStream()} suddivide l'intervallo in parti uguali.
+ * I metodi di modifica sollevano {@link UnsupportedOperationException}.
+ */
+public final class LocalDateRange extends AbstractSet<LocalDate> implements NavigableSet<LocalDate> {
+
+    private static final LocalDateRange EMPTY = new LocalDateRange(0, -1);
+
+    private final long first;
+    private final long last;
+
+    private LocalDateRange(long first, long last) {
+        this.first = first;
+        this.last = last;
+    }
+
+    /**
+     * Crea l'intervallo di date tra due estremi inclusi.
+     *
+     * @param dateStart inizio periodo, non null
+     * @param dateEnd   fine periodo, non null
+     * @return intervallo di date; vuoto se la fine precede l'inizio
+     */
+    public static LocalDateRange of(@NotNull LocalDate dateStart, @NotNull LocalDate dateEnd) {
+        return ofEpochDays(dateStart.toEpochDay(), dateEnd.toEpochDay());
+    }
+
+    /**
+     * Crea l'intervallo di date tra due giorni dall'epoch inclusi.
+     *
+     * @param firstEpochDay primo giorno
+     * @param lastEpochDay  ultimo giorno
+     * @return intervallo di date; vuoto se l'ultimo giorno precede il primo
+     */
+    public static LocalDateRange ofEpochDays(long firstEpochDay, long lastEpochDay) {
+        return firstEpochDay > lastEpochDay ? EMPTY : new LocalDateRange(firstEpochDay, lastEpochDay);
+    }
+
+    /**
+     * @return primo giorno dall'epoch incluso; significativo solo se l'intervallo non è vuoto
+     */
+    public long firstEpochDay() {
+        return first;
+    }
+
+    /**
+     * @return ultimo giorno dall'epoch incluso; significativo solo se l'intervallo non è vuoto
+     */
+    public long lastEpochDay() {
+        return last;
+    }
+
+    /**
+     * @return numero di giorni dell'intervallo, senza il limite di {@link #size()}
+     */
+    public long lengthInDays() {
+        return isEmpty() ? 0 : last - first + 1;
+    }
+
+    @Override
+    public int size() {
+        return (int) Math.min(lengthInDays(), Integer.MAX_VALUE);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return first > last;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        if (!(o instanceof LocalDate date)) {
+            return false;
+        }
+        long day = date.toEpochDay();
+        return day >= first && day <= last;
+    }
+
+    @Override
+    public Comparator<? super LocalDate> comparator() {
+        return null;
+    }
+
+    @Override
+    public LocalDate first() {
+        if (isEmpty()) {
+            throw new NoSuchElementException();
+        }
+        return LocalDate.ofEpochDay(first);
+    }
+
+    @Override
+    public LocalDate last() {
+        if (isEmpty()) {
+            throw new NoSuchElementException();
+        }
+        return LocalDate.ofEpochDay(last);
+    }
+
+    @Override
+    public LocalDate lower(LocalDate e) {
+        return atOrBelow(e.toEpochDay() - 1);
+    }
+
+    @Override
+    public LocalDate floor(LocalDate e) {
+        return atOrBelow(e.toEpochDay());
+    }
+
+    @Override
+    public LocalDate ceiling(LocalDate e) {
+        return atOrAbove(e.toEpochDay());
+    }
+
+    @Override
+    public LocalDate higher(LocalDate e) {
+        return atOrAbove(e.toEpochDay() + 1);
+    }
+
+    @Override
+    public LocalDate pollFirst() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public LocalDate pollLast() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Iterator<LocalDate> iterator() {
+        return Spliterators.iterator(spliterator());
+    }
+
+    @Override
+    public Iterator<LocalDate> descendingIterator() {
+        return new Iterator<>() {
+            private long next = last;
+
+            @Override
+            public boolean hasNext() {
+                return next >= first;
+            }
+
+            @Override
+            public LocalDate next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return LocalDate.ofEpochDay(next--);
+            }
+        };
+    }
+
+    @Override
+    public NavigableSet<LocalDate> descendingSet() {
+        return new Descending(this);
+    }
+
+    @Override
+    public LocalDateRange subSet(LocalDate fromElement, boolean fromInclusive, LocalDate toElement, boolean toInclusive) {
+        if (fromElement.isAfter(toElement)) {
+            throw new IllegalArgumentException("fromElement must be less or equal toElement.");
+        }
+        return clamp(fromElement.toEpochDay() + (fromInclusive ? 0 : 1), toElement.toEpochDay() - (toInclusive ? 0 : 1));
+    }
+
+    @Override
+    public LocalDateRange headSet(LocalDate toElement, boolean inclusive) {
+        return clamp(first, toElement.toEpochDay() - (inclusive ? 0 : 1));
+    }
+
+    @Override
+    public LocalDateRange tailSet(LocalDate fromElement, boolean inclusive) {
+        return clamp(fromElement.toEpochDay() + (inclusive ? 0 : 1), last);
+    }
+
+    @Override
+    public LocalDateRange subSet(LocalDate fromElement, LocalDate toElement) {
+        return subSet(fromElement, true, toElement, false);
+    }
+
+    @Override
+    public LocalDateRange headSet(LocalDate toElement) {
+        return headSet(toElement, false);
+    }
+
+    @Override
+    public LocalDateRange tailSet(LocalDate fromElement) {
+        return tailSet(fromElement, true);
+    }
+
+    @Override
+    public Spliterator<LocalDate> spliterator() {
+        return new RangeSpliterator(first, last);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o instanceof LocalDateRange other) {
+            return (isEmpty() && other.isEmpty()) || (first == other.first && last == other.last);
+        }
+        return super.equals(o);
+    }
+
+    @Override
+    public int hashCode() {
+        return super.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return isEmpty() ? "[]" : "[" + first() + ".." + last() + "]";
+    }
+
+    private LocalDateRange clamp(long from, long to) {
+        return ofEpochDays(Math.max(from, first), Math.min(to, last));
+    }
+
+    private LocalDate atOrBelow(long day) {
+        long candidate = Math.min(day, last);
+        return candidate >= first ? LocalDate.ofEpochDay(candidate) : null;
+    }
+
+    private LocalDate atOrAbove(long day) {
+        long candidate = Math.max(day, first);
+        return candidate <= last ? LocalDate.ofEpochDay(candidate) : null;
+    }
+
+    private static final class RangeSpliterator implements Spliterator<LocalDate> {
+
+        private long next;
+        private final long last;
+
+        private RangeSpliterator(long next, long last) {
+            this.next = next;
+            this.last = last;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super LocalDate> action) {
+            if (next > last) {
+                return false;
+            }
+            action.accept(LocalDate.ofEpochDay(next++));
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super LocalDate> action) {
+            long day = next;
+            next = last + 1;
+            for (; day <= last; day++) {
+                action.accept(LocalDate.ofEpochDay(day));
+            }
+        }
+
+        @Override
+        public Spliterator<LocalDate> trySplit() {
+            long remaining = last - next + 1;
+            if (remaining < 2) {
+                return null;
+            }
+            long prefixLast = next + remaining / 2 - 1;
+            var prefix = new RangeSpliterator(next, prefixLast);
+            next = prefixLast + 1;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return Math.max(0, last - next + 1);
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | DISTINCT | SORTED | SIZED | SUBSIZED | NONNULL | IMMUTABLE;
+        }
+
+        @Override
+        public Comparator<? super LocalDate> getComparator() {
+            return null;
+        }
+    }
+
+    /**
+     * Vista in ordine decrescente di un intervallo: ogni operazione è delegata all'intervallo con la direzione invertita.
+     */
+    private static final class Descending extends AbstractSet<LocalDate> implements NavigableSet<LocalDate> {
+
+        private final LocalDateRange range;
+
+        private Descending(LocalDateRange range) {
+            this.range = range;
+        }
+
+        @Override
+        public int size() {
+            return range.size();
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return range.contains(o);
+        }
+
+        @Override
+        public Comparator<? super LocalDate> comparator() {
+            return Comparator.reverseOrder();
+        }
+
+        @Override
+        public LocalDate first() {
+            return range.last();
+        }
+
+        @Override
+        public LocalDate last() {
+            return range.first();
+        }
+
+        @Override
+        public LocalDate lower(LocalDate e) {
+            return range.higher(e);
+        }
+
+        @Override
+        public LocalDate floor(LocalDate e) {
+            return range.ceiling(e);
+        }
+
+        @Override
+        public LocalDate ceiling(LocalDate e) {
+            return range.floor(e);
+        }
+
+        @Override
+        public LocalDate higher(LocalDate e) {
+            return range.lower(e);
+        }
+
+        @Override
+        public LocalDate pollFirst() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public LocalDate pollLast() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Iterator<LocalDate> iterator() {
+            return range.descendingIterator();
+        }
+
+        @Override
+        public Iterator<LocalDate> descendingIterator() {
+            return range.iterator();
+        }
+
+        @Override
+        public NavigableSet<LocalDate> descendingSet() {
+            return range;
+        }
+
+        @Override
+        public NavigableSet<LocalDate> subSet(LocalDate fromElement, boolean fromInclusive, LocalDate toElement, boolean toInclusive) {
+            return range.subSet(toElement, toInclusive, fromElement, fromInclusive).descendingSet();
+        }
+
+        @Override
+        public NavigableSet<LocalDate> headSet(LocalDate toElement, boolean inclusive) {
+            return range.tailSet(toElement, inclusive).descendingSet();
+        }
+
+        @Override
+        public NavigableSet<LocalDate> tailSet(LocalDate fromElement, boolean inclusive) {
+            return range.headSet(fromElement, inclusive).descendingSet();
+        }
+
+        @Override
+        public NavigableSet<LocalDate> subSet(LocalDate fromElement, LocalDate toElement) {
+            return subSet(fromElement, true, toElement, false);
+        }
+
+        @Override
+        public NavigableSet<LocalDate> headSet(LocalDate toElement) {
+            return headSet(toElement, false);
+        }
+
+        @Override
+        public NavigableSet<LocalDate> tailSet(LocalDate fromElement) {
+            return tailSet(fromElement, true);
+        }
+
+        @Override
+        public Spliterator<LocalDate> spliterator() {
+            return Spliterators.spliterator(iterator(), range.lengthInDays(),
+                    Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.NONNULL | Spliterator.IMMUTABLE);
+        }
+
+    }
+
+}
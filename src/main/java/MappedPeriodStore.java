@@ -0,0 +1,598 @@
+import jakarta.annotation.Nullable;
+import jakarta.validation.constraints.NotNull;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.PriorityQueue;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.LongConsumer;
+import java.util.stream.LongStream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Archivio su file di periodi, per volumi che non stanno nello heap: ogni periodo è un record di larghezza fissa
+ * (id, inizio, fine) letto direttamente dal file mappato in memoria.
+ * <br>
+ * Inizio e fine sono {@code long} nella stessa unità per tutto l'archivio, ad esempio giorni dall'epoch di
+ * {@link LocalDate#toEpochDay()} o secondi dall'epoch come in {@link EpochDateTimes}; la fine aperta è {@link #OPEN_END},
+ * che non coincide con {@link EpochDates#OPEN_END}: per le date conviene {@link #append(long, LocalDate, LocalDate)}.
+ * Il file contiene una parte ordinata per inizio, seguita dai record aggiunti dopo l'ultima {@link #compact()}. Sulla parte
+ * ordinata l'archivio tiene in memoria un riassunto per blocchi di record, con l'inizio minimo e la fine massima di ogni
+ * blocco, ricalcolato all'apertura e dopo ogni compattazione: le query saltano i blocchi che non possono contenere
+ * risultati e scorrono linearmente solo la coda non ordinata.
+ * <br>
+ * L'ultimo blocco mappato cresce per raddoppi fino a 2^25 record, estendendo il file oltre l'ultimo record: la dimensione
+ * reale è nell'intestazione e lo spazio in eccesso non supera quello dei record dell'ultimo blocco.
+ * <br>
+ * Le query possono essere eseguite da più thread; le scritture no, e non possono essere concorrenti con le query.
+ * <pre>
+ *     {@code try (var store = MappedPeriodStore.open(Path.of("skills.periods"))) {}
+ *     {@code     store.append(skill.getId(), skill.getDataInizio(), skill.getDataFine());}
+ *     {@code     store.intersecting(inizio.toEpochDay(), fine.toEpochDay(), ids::add);}
+ *     {@code }}
+ * </pre>
+ */
+public final class MappedPeriodStore implements Closeable {
+
+    /**
+     * Fine di un periodo aperto
+     */
+    public static final long OPEN_END = Long.MAX_VALUE;
+
+    private static final int MAGIC = 0x4A555053;
+    private static final int VERSION = 1;
+    private static final int RECORD_BYTES = 24;
+    private static final int BLOCK_SHIFT = 10;
+    private static final int CHUNK_SHIFT = 25;
+    private static final long CHUNK_MASK = (1L << CHUNK_SHIFT) - 1;
+    private static final int MIN_CHUNK_SHIFT = 16;
+    private static final int RUN_SHIFT = 22;
+    private static final int WRITE_BUFFER_RECORDS = 4096;
+
+    private final Path path;
+    private FileChannel channel;
+    private MappedByteBuffer[] chunks = new MappedByteBuffer[0];
+    private long size;
+    private long sortedSize;
+    private long[] blockMaxEnds = new long[0];
+    private final ByteBuffer pending = ByteBuffer.allocateDirect(WRITE_BUFFER_RECORDS * RECORD_BYTES);
+
+    private MappedPeriodStore(Path path) throws IOException {
+        this.path = path;
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        if (channel.size() == 0) {
+            writeHeader(channel, 0, 0);
+        }
+        readHeader();
+        remap();
+        buildIndex();
+    }
+
+    /**
+     * Apre un archivio, creandolo se il file non esiste.
+     *
+     * @param path file, non null
+     * @return archivio, da chiudere
+     * @throws IOException se il file non è leggibile o non è un archivio di periodi
+     */
+    public static MappedPeriodStore open(@NotNull Path path) throws IOException {
+        return new MappedPeriodStore(path);
+    }
+
+    /**
+     * Aggiunge un periodo in coda. I record sono scritti a blocchi e sono visibili alle query dopo {@link #flush()}, che le
+     * query stesse eseguono se necessario.
+     *
+     * @param id    identificativo dell'entità
+     * @param start inizio
+     * @param end   fine, {@link #OPEN_END} se aperto; {@link EpochDates#OPEN_END} è una fine chiusa
+     * @throws IllegalArgumentException se la fine precede l'inizio
+     */
+    public void append(long id, long start, long end) {
+        if (start > end)
+            throw new IllegalArgumentException("End period must be greater or equal start period.");
+        pending.putLong(id).putLong(start).putLong(end);
+        if (!pending.hasRemaining()) {
+            flush();
+        }
+    }
+
+    /**
+     * Aggiunge un periodo di date, in giorni dall'epoch.
+     *
+     * @param id    identificativo dell'entità
+     * @param start inizio, non null
+     * @param end   fine, null se aperto
+     * @throws IllegalArgumentException se la fine precede l'inizio
+     */
+    public void append(long id, @NotNull LocalDate start, @Nullable LocalDate end) {
+        append(id, start.toEpochDay(), end == null ? OPEN_END : end.toEpochDay());
+    }
+
+    /**
+     * Scrive su file i record aggiunti e li rende visibili alle query.
+     */
+    public void flush() {
+        if (pending.position() == 0) {
+            return;
+        }
+        try {
+            pending.flip();
+            long position = RECORD_BYTES * (size + 1);
+            while (pending.hasRemaining()) {
+                position += channel.write(pending, position);
+            }
+            size = position / RECORD_BYTES - 1;
+            pending.clear();
+            writeHeader(channel, size, sortedSize);
+            remap();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Ordina la coda dei record aggiunti e la fonde con la parte ordinata in un nuovo file, che sostituisce il precedente.
+     * La coda è ordinata a blocchi di 2^22 record, scritti in file temporanei accanto all'archivio, e poi fusa in streaming
+     * con la parte ordinata: la memoria usata non dipende dalla dimensione dell'archivio. Se la sostituzione del file
+     * fallisce l'archivio resta quello precedente.
+     */
+    public void compact() {
+        flush();
+        if (sortedSize == size) {
+            return;
+        }
+        Path compacted = path.resolveSibling(path.getFileName() + ".compact");
+        var runs = new ArrayList<Path>();
+        try {
+            try {
+                for (long from = sortedSize; from < size; from += 1L << RUN_SHIFT) {
+                    runs.add(writeRun(from, Math.min(size, from + (1L << RUN_SHIFT)), runs.size()));
+                }
+                merge(compacted, runs);
+            } finally {
+                for (var run : runs) {
+                    Files.deleteIfExists(run);
+                }
+            }
+            // il file è sostituito mentre quello vecchio è ancora aperto: se fallisce lo stato resta valido
+            Files.move(compacted, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            try {
+                Files.deleteIfExists(compacted);
+            } catch (IOException suppressed) {
+                e.addSuppressed(suppressed);
+            }
+            throw new UncheckedIOException(e);
+        }
+        try {
+            var reopened = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            var old = channel;
+            channel = reopened;
+            chunks = new MappedByteBuffer[0];
+            old.close();
+            readHeader();
+            remap();
+            buildIndex();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Passa gli id dei periodi che intersecano un periodo di controllo, con le regole di
+     * {@link EpochDates#entityInPeriod(int, int, int, int)}: iniziano nel periodo, finiscono nel periodo o lo contengono.
+     *
+     * @param startPeriod inizio periodo controllo
+     * @param endPeriod   fine periodo controllo
+     * @param action      azione per ogni id, non null
+     * @throws IllegalArgumentException se la fine precede l'inizio
+     */
+    public void intersecting(long startPeriod, long endPeriod, @NotNull LongConsumer action) {
+        intersectingIds(startPeriod, endPeriod).forEach(action);
+    }
+
+    /**
+     * Come {@link #intersecting(long, long, LongConsumer)}, come stream pigro.
+     *
+     * @param startPeriod inizio periodo controllo
+     * @param endPeriod   fine periodo controllo
+     * @return id dei periodi: prima quelli ordinati per inizio, poi quelli della coda
+     * @throws IllegalArgumentException se la fine precede l'inizio
+     */
+    public LongStream intersectingIds(long startPeriod, long endPeriod) {
+        if (startPeriod > endPeriod)
+            throw new IllegalArgumentException("End period must be greater or equal start period.");
+        flush();
+        return stream(new Cursor(0, upperBound(endPeriod), startPeriod, endPeriod, false));
+    }
+
+    /**
+     * Passa gli id dei periodi interamente contenuti in un periodo di controllo, con le regole di
+     * {@link EpochDates#checkInclusiveElement(int, int, int, int)}.
+     *
+     * @param startPeriod inizio periodo includente
+     * @param endPeriod   fine periodo includente, {@link #OPEN_END} se aperto
+     * @param action      azione per ogni id, non null
+     * @throws IllegalArgumentException se la fine precede l'inizio
+     */
+    public void within(long startPeriod, long endPeriod, @NotNull LongConsumer action) {
+        withinIds(startPeriod, endPeriod).forEach(action);
+    }
+
+    /**
+     * Come {@link #within(long, long, LongConsumer)}, come stream pigro.
+     *
+     * @param startPeriod inizio periodo includente
+     * @param endPeriod   fine periodo includente, {@link #OPEN_END} se aperto
+     * @return id dei periodi: prima quelli ordinati per inizio, poi quelli della coda
+     * @throws IllegalArgumentException se la fine precede l'inizio
+     */
+    public LongStream withinIds(long startPeriod, long endPeriod) {
+        if (startPeriod > endPeriod)
+            throw new IllegalArgumentException("End period must be greater or equal start period.");
+        flush();
+        return stream(new Cursor(lowerBound(startPeriod), upperBound(endPeriod), startPeriod, endPeriod, true));
+    }
+
+    /**
+     * @return numero di periodi, compresi quelli non ancora scritti
+     */
+    public long size() {
+        return size + pending.position() / RECORD_BYTES;
+    }
+
+    /**
+     * @return numero di periodi nella parte ordinata del file
+     */
+    public long sortedSize() {
+        return sortedSize;
+    }
+
+    @Override
+    public void close() throws IOException {
+        flush();
+        chunks = new MappedByteBuffer[0];
+        channel.close();
+    }
+
+    private static LongStream stream(Cursor cursor) {
+        return StreamSupport.longStream(Spliterators.spliteratorUnknownSize(cursor,
+                Spliterator.ORDERED | Spliterator.NONNULL | Spliterator.IMMUTABLE), false);
+    }
+
+    private long id(long record) {
+        return field(record, 0);
+    }
+
+    private long start(long record) {
+        return field(record, 8);
+    }
+
+    private long end(long record) {
+        return field(record, 16);
+    }
+
+    private long field(long record, int offset) {
+        // il record 0 del file è l'intestazione
+        long position = record + 1;
+        return chunks[(int) (position >>> CHUNK_SHIFT)].getLong((int) (position & CHUNK_MASK) * RECORD_BYTES + offset);
+    }
+
+    /**
+     * @return primo record della parte ordinata con inizio maggiore o uguale a key
+     */
+    private long lowerBound(long key) {
+        long lo = 0;
+        long hi = sortedSize;
+        while (lo < hi) {
+            long mid = (lo + hi) >>> 1;
+            if (start(mid) < key) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * @return primo record della parte ordinata con inizio maggiore di key
+     */
+    private long upperBound(long key) {
+        long lo = 0;
+        long hi = sortedSize;
+        while (lo < hi) {
+            long mid = (lo + hi) >>> 1;
+            if (start(mid) <= key) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    private void readHeader() throws IOException {
+        var header = ByteBuffer.allocate(RECORD_BYTES);
+        channel.read(header, 0);
+        header.flip();
+        if (header.remaining() < RECORD_BYTES || header.getInt() != MAGIC || header.getInt() != VERSION) {
+            throw new IOException("Not a period store: " + path);
+        }
+        this.size = header.getLong();
+        this.sortedSize = header.getLong();
+    }
+
+    private static void writeHeader(FileChannel channel, long size, long sortedSize) throws IOException {
+        var header = ByteBuffer.allocate(RECORD_BYTES).putInt(MAGIC).putInt(VERSION).putLong(size).putLong(sortedSize).flip();
+        while (header.hasRemaining()) {
+            channel.write(header, RECORD_BYTES - header.remaining());
+        }
+    }
+
+    private static void drain(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Ordina i record [from, to) della coda e li scrive in un file temporaneo.
+     */
+    private Path writeRun(long from, long to, int run) throws IOException {
+        int length = (int) (to - from);
+        long[] ids = new long[length];
+        long[] starts = new long[length];
+        long[] ends = new long[length];
+        for (int i = 0; i < length; i++) {
+            ids[i] = id(from + i);
+            starts[i] = start(from + i);
+            ends[i] = end(from + i);
+        }
+        Path file = path.resolveSibling(path.getFileName() + ".run" + run);
+        try (var out = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            var buffer = ByteBuffer.allocateDirect(WRITE_BUFFER_RECORDS * RECORD_BYTES);
+            for (int i : PrimitiveSort.sortedIndexes(starts)) {
+                buffer.putLong(ids[i]).putLong(starts[i]).putLong(ends[i]);
+                if (!buffer.hasRemaining()) {
+                    drain(out, buffer);
+                }
+            }
+            drain(out, buffer);
+        }
+        return file;
+    }
+
+    /**
+     * Fonde la parte ordinata e i file ordinati della coda in un nuovo archivio compatto.
+     */
+    private void merge(Path compacted, List<Path> runs) throws IOException {
+        var sources = new PriorityQueue<Source>(runs.size() + 1,
+                Comparator.comparingLong((Source source) -> source.start).thenComparingInt(source -> source.order));
+        var readers = new ArrayList<FileChannel>(runs.size());
+        try (var out = FileChannel.open(compacted, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            // a parità di inizio i record già ordinati precedono quelli della coda, nell'ordine di inserimento
+            var sorted = new SortedSource();
+            if (sorted.advance()) {
+                sources.add(sorted);
+            }
+            for (var run : runs) {
+                var reader = FileChannel.open(run, StandardOpenOption.READ);
+                readers.add(reader);
+                var source = new RunSource(reader, readers.size());
+                if (source.advance()) {
+                    sources.add(source);
+                }
+            }
+            writeHeader(out, size, size);
+            out.position(RECORD_BYTES);
+            var buffer = ByteBuffer.allocateDirect(WRITE_BUFFER_RECORDS * RECORD_BYTES);
+            while (!sources.isEmpty()) {
+                var source = sources.poll();
+                buffer.putLong(source.id).putLong(source.start).putLong(source.end);
+                if (!buffer.hasRemaining()) {
+                    drain(out, buffer);
+                }
+                if (source.advance()) {
+                    sources.add(source);
+                }
+            }
+            drain(out, buffer);
+            out.force(true);
+        } finally {
+            for (var reader : readers) {
+                reader.close();
+            }
+        }
+    }
+
+    /**
+     * Mappa il file a blocchi di 2^25 record, sotto il limite di 2GB di un {@link MappedByteBuffer}. I blocchi che coprono
+     * già i record restano mappati; l'ultimo è rimappato con capacità doppia solo quando si riempie, così il numero di
+     * mappature vive resta logaritmico nel numero di flush.
+     */
+    private void remap() throws IOException {
+        long records = size + 1;
+        int count = (int) ((records + CHUNK_MASK) >>> CHUNK_SHIFT);
+        var mapped = count == chunks.length ? chunks : Arrays.copyOf(chunks, count);
+        for (int i = 0; i < count; i++) {
+            long first = (long) i << CHUNK_SHIFT;
+            long required = Math.min(records - first, 1L << CHUNK_SHIFT);
+            if (mapped[i] != null && mapped[i].capacity() / RECORD_BYTES >= required) {
+                continue;
+            }
+            int shift = Math.max(MIN_CHUNK_SHIFT, 64 - Long.numberOfLeadingZeros(required - 1));
+            long capacity = 1L << Math.min(shift, CHUNK_SHIFT);
+            // mappare oltre la fine estende il file
+            mapped[i] = channel.map(FileChannel.MapMode.READ_ONLY, first * RECORD_BYTES, capacity * RECORD_BYTES);
+        }
+        chunks = mapped;
+    }
+
+    private void buildIndex() {
+        var maxEnds = new long[(int) ((sortedSize + (1 << BLOCK_SHIFT) - 1) >>> BLOCK_SHIFT)];
+        for (int block = 0; block < maxEnds.length; block++) {
+            long max = Long.MIN_VALUE;
+            long last = Math.min(sortedSize, (long) (block + 1) << BLOCK_SHIFT);
+            for (long record = (long) block << BLOCK_SHIFT; record < last; record++) {
+                max = Math.max(max, end(record));
+            }
+            maxEnds[block] = max;
+        }
+        blockMaxEnds = maxEnds;
+    }
+
+    /**
+     * Sorgente ordinata della fusione, con il record corrente
+     */
+    private abstract static class Source {
+
+        private final int order;
+        long id;
+        long start;
+        long end;
+
+        private Source(int order) {
+            this.order = order;
+        }
+
+        /**
+         * @return vero se è stato letto un altro record, falso a fine sorgente
+         */
+        abstract boolean advance() throws IOException;
+    }
+
+    private final class SortedSource extends Source {
+
+        private long record = -1;
+
+        private SortedSource() {
+            super(0);
+        }
+
+        @Override
+        boolean advance() {
+            if (++record >= sortedSize) {
+                return false;
+            }
+            id = id(record);
+            start = start(record);
+            end = end(record);
+            return true;
+        }
+    }
+
+    private static final class RunSource extends Source {
+
+        private final FileChannel reader;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(WRITE_BUFFER_RECORDS * RECORD_BYTES).limit(0);
+
+        private RunSource(FileChannel reader, int order) {
+            super(order);
+            this.reader = reader;
+        }
+
+        @Override
+        boolean advance() throws IOException {
+            if (!buffer.hasRemaining()) {
+                buffer.clear();
+                int read = 0;
+                while (buffer.hasRemaining() && read >= 0) {
+                    read = reader.read(buffer);
+                }
+                buffer.flip();
+                if (!buffer.hasRemaining()) {
+                    return false;
+                }
+            }
+            id = buffer.getLong();
+            start = buffer.getLong();
+            end = buffer.getLong();
+            return true;
+        }
+    }
+
+    /**
+     * Scorre i record [from, to) della parte ordinata, saltando i blocchi con fine massima precedente all'inizio del
+     * periodo, e poi tutta la coda.
+     */
+    private final class Cursor implements PrimitiveIterator.OfLong {
+
+        private final long to;
+        private final long startPeriod;
+        private final long endPeriod;
+        private final boolean within;
+        private final long last = size;
+        private long record;
+        private boolean ready;
+
+        private Cursor(long from, long to, long startPeriod, long endPeriod, boolean within) {
+            this.record = from - 1;
+            this.to = to;
+            this.startPeriod = startPeriod;
+            this.endPeriod = endPeriod;
+            this.within = within;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (ready) {
+                return true;
+            }
+            while (++record < last) {
+                if (record < sortedSize) {
+                    if (record >= to) {
+                        record = sortedSize - 1;
+                        continue;
+                    }
+                    if ((record & ((1 << BLOCK_SHIFT) - 1)) == 0 && blockMaxEnds[(int) (record >>> BLOCK_SHIFT)] < startPeriod) {
+                        // l'ultimo blocco può essere parziale: il salto non deve superare la parte ordinata
+                        record = Math.min(record + (1 << BLOCK_SHIFT) - 1, Math.min(to, sortedSize) - 1);
+                        continue;
+                    }
+                }
+                if (matches(start(record), end(record))) {
+                    ready = true;
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public long nextLong() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            ready = false;
+            return id(record);
+        }
+
+        private boolean matches(long start, long end) {
+            if (within) {
+                return EpochDateTimes.checkInclusiveElement(start, end, startPeriod, endPeriod);
+            }
+            return EpochDateTimes.entityInPeriod(start, end, startPeriod, endPeriod);
+        }
+    }
+
+}
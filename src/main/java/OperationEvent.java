@@ -0,0 +1,25 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Evento JDK Flight Recorder emesso da {@link Instrumentation} per ogni operazione strumentata: inizia con l'operazione
+ * e la sua durata è quella dell'operazione.
+ */
+@Name("jutils.Operation")
+@Label("j-utils Operation")
+@Category("j-utils")
+@Description("Operazione costosa di DateUtility, Utility o PeriodIndex")
+@StackTrace(false)
+final class OperationEvent extends Event {
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Input Size")
+    long inputSize;
+
+}
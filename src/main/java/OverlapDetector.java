@@ -0,0 +1,267 @@
+import jakarta.annotation.Nullable;
+import jakarta.validation.constraints.NotNull;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+import java.util.stream.IntStream;
+
+/**
+ * Rilevatore di sovrapposizioni tra i periodi di una collezione, con una sola scansione dopo un ordinamento su chiavi primitive.
+ * <br>
+ * Due periodi sono in conflitto se iniziano nello stesso istante, oppure se uno inizia prima della fine dell'altro.
+ * Un periodo che inizia esattamente alla fine del precedente non è in conflitto; la fine null indica un periodo aperto,
+ * in conflitto con ogni periodo che inizia dopo.
+ * <pre>
+ *     {@code OverlapReport<TurnoDto> report = OverlapDetector.detectDateTimes(turni, TurnoDto::getDataOraInizio, TurnoDto::getDataOraFine, OverlapDetector.Mode.ALL);}
+ *     {@code Map<Long, OverlapReport<TurnoDto>> perDipendente = OverlapDetector.detectDateTimesByKey(turni, TurnoDto::getIdDipendente, TurnoDto::getDataOraInizio, TurnoDto::getDataOraFine, OverlapDetector.Mode.FIRST);}
+ * </pre>
+ */
+public class OverlapDetector {
+
+    /**
+     * Modalità di rilevamento
+     */
+    public enum Mode {
+        /**
+         * Elenca tutte le coppie in conflitto
+         */
+        ALL,
+        /**
+         * Si ferma alla prima coppia in conflitto
+         */
+        FIRST
+    }
+
+    private static final long OPEN_END = Long.MAX_VALUE;
+    private static final int PARALLEL_THRESHOLD = 1 << 13;
+
+    /**
+     * Cerca le sovrapposizioni tra i periodi di date di una collezione.
+     *
+     * @param collection        collezione, non null
+     * @param functionDateStart getter data inizio, non null; il valore restituito non può essere null
+     * @param functionDateEnd   getter data fine, non null; il valore restituito può essere null
+     * @param mode              modalità di rilevamento
+     * @param <T>               tipo collezione
+     * @return report delle coppie in conflitto
+     */
+    public static <T> OverlapReport<T> detectDates(@NotNull Collection<T> collection,
+                                                   @NotNull Function<T, LocalDate> functionDateStart,
+                                                   @NotNull Function<T, LocalDate> functionDateEnd,
+                                                   @NotNull Mode mode) {
+        return detect(collection, functionDateStart, functionDateEnd, LocalDate::toEpochDay, mode);
+    }
+
+    /**
+     * Cerca le sovrapposizioni tra i periodi di date-time di una collezione.
+     *
+     * @param collection        collezione, non null
+     * @param functionDateStart getter date-time inizio, non null; il valore restituito non può essere null
+     * @param functionDateEnd   getter date-time fine, non null; il valore restituito può essere null
+     * @param mode              modalità di rilevamento
+     * @param <T>               tipo collezione
+     * @return report delle coppie in conflitto
+     */
+    public static <T> OverlapReport<T> detectDateTimes(@NotNull Collection<T> collection,
+                                                       @NotNull Function<T, LocalDateTime> functionDateStart,
+                                                       @NotNull Function<T, LocalDateTime> functionDateEnd,
+                                                       @NotNull Mode mode) {
+        return detect(collection, functionDateStart, functionDateEnd,
+                DateTimeKeys.of(collection, functionDateStart, functionDateEnd), mode);
+    }
+
+    /**
+     * Cerca le sovrapposizioni tra i periodi di date di una collezione, separatamente per ogni chiave. La collezione è
+     * partizionata con una sola scansione e, oltre una certa dimensione, i gruppi sono controllati in parallelo sul
+     * {@link java.util.concurrent.ForkJoinPool} comune.
+     *
+     * @param collection        collezione, non null
+     * @param keyExtractor      getter chiave del gruppo, non null; il valore restituito può essere null
+     * @param functionDateStart getter data inizio, non null; il valore restituito non può essere null
+     * @param functionDateEnd   getter data fine, non null; il valore restituito può essere null
+     * @param mode              modalità di rilevamento, applicata a ogni gruppo
+     * @param <T>               tipo collezione
+     * @param <K>               tipo chiave
+     * @return report per chiave, nell'ordine in cui le chiavi compaiono nella collezione; un report senza conflitti indica un gruppo valido
+     */
+    public static <T, K> Map<K, OverlapReport<T>> detectDatesByKey(@NotNull Collection<T> collection,
+                                                                   @NotNull Function<T, K> keyExtractor,
+                                                                   @NotNull Function<T, LocalDate> functionDateStart,
+                                                                   @NotNull Function<T, LocalDate> functionDateEnd,
+                                                                   @NotNull Mode mode) {
+        return detectByKey(collection, keyExtractor, group -> detectDates(group, functionDateStart, functionDateEnd, mode));
+    }
+
+    /**
+     * Cerca le sovrapposizioni tra i periodi di date-time di una collezione, separatamente per ogni chiave, come
+     * {@link #detectDatesByKey(Collection, Function, Function, Function, Mode)}.
+     *
+     * @param collection        collezione, non null
+     * @param keyExtractor      getter chiave del gruppo, non null; il valore restituito può essere null
+     * @param functionDateStart getter date-time inizio, non null; il valore restituito non può essere null
+     * @param functionDateEnd   getter date-time fine, non null; il valore restituito può essere null
+     * @param mode              modalità di rilevamento, applicata a ogni gruppo
+     * @param <T>               tipo collezione
+     * @param <K>               tipo chiave
+     * @return report per chiave, nell'ordine in cui le chiavi compaiono nella collezione; un report senza conflitti indica un gruppo valido
+     */
+    public static <T, K> Map<K, OverlapReport<T>> detectDateTimesByKey(@NotNull Collection<T> collection,
+                                                                       @NotNull Function<T, K> keyExtractor,
+                                                                       @NotNull Function<T, LocalDateTime> functionDateStart,
+                                                                       @NotNull Function<T, LocalDateTime> functionDateEnd,
+                                                                       @NotNull Mode mode) {
+        return detectByKey(collection, keyExtractor, group -> detectDateTimes(group, functionDateStart, functionDateEnd, mode));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T, K> Map<K, OverlapReport<T>> detectByKey(Collection<T> collection,
+                                                               Function<T, K> keyExtractor,
+                                                               Function<List<T>, OverlapReport<T>> detector) {
+        Map<K, List<T>> groups = new LinkedHashMap<>();
+        for (var t : collection) {
+            groups.computeIfAbsent(keyExtractor.apply(t), k -> new ArrayList<>()).add(t);
+        }
+        List<List<T>> lists = new ArrayList<>(groups.values());
+        Object[] reports = new Object[lists.size()];
+        var indexes = IntStream.range(0, lists.size());
+        if (collection.size() >= PARALLEL_THRESHOLD) {
+            indexes = indexes.parallel();
+        }
+        indexes.forEach(i -> reports[i] = detector.apply(lists.get(i)));
+        Map<K, OverlapReport<T>> result = LinkedHashMap.newLinkedHashMap(reports.length);
+        int i = 0;
+        for (K key : groups.keySet()) {
+            result.put(key, (OverlapReport<T>) reports[i++]);
+        }
+        return result;
+    }
+
+    private static <T, P> OverlapReport<T> detect(Collection<T> collection,
+                                                  Function<T, P> functionStart,
+                                                  Function<T, P> functionEnd,
+                                                  ToLongFunction<P> keys,
+                                                  Mode mode) {
+        int size = collection.size();
+        Object[] items = new Object[size];
+        long[] starts = new long[size];
+        long[] ends = new long[size];
+        int i = 0;
+        for (var t : collection) {
+            items[i] = t;
+            starts[i] = keys.applyAsLong(Objects.requireNonNull(functionStart.apply(t), "Start must not be null."));
+            @Nullable P end = functionEnd.apply(t);
+            ends[i] = end == null ? OPEN_END : keys.applyAsLong(end);
+            i++;
+        }
+        int[] order = PrimitiveSort.sortedIndexes(starts);
+        List<OverlapReport.Conflict<T>> conflicts = new ArrayList<>();
+        if (mode == Mode.FIRST) {
+            findFirst(items, starts, ends, order, conflicts);
+        } else {
+            findAll(items, starts, ends, order, conflicts);
+        }
+        return new OverlapReport<>(conflicts);
+    }
+
+    private static <T> void findFirst(Object[] items, long[] starts, long[] ends, int[] order,
+                                      List<OverlapReport.Conflict<T>> conflicts) {
+        // basta ricordare il periodo che finisce più tardi tra quelli già visti
+        int latest = -1;
+        int previous = -1;
+        for (int current : order) {
+            if (previous >= 0 && starts[current] == starts[previous]) {
+                conflicts.add(conflict(items, previous, current));
+                return;
+            }
+            if (latest >= 0 && starts[current] < ends[latest]) {
+                conflicts.add(conflict(items, latest, current));
+                return;
+            }
+            previous = current;
+            if (latest < 0 || ends[current] > ends[latest]) {
+                latest = current;
+            }
+        }
+    }
+
+    private static <T> void findAll(Object[] items, long[] starts, long[] ends, int[] order,
+                                    List<OverlapReport.Conflict<T>> conflicts) {
+        // min-heap per fine dei periodi ancora attivi
+        int[] heap = new int[order.length];
+        int heapSize = 0;
+        int group = 0;
+        while (group < order.length) {
+            long start = starts[order[group]];
+            int groupEnd = group;
+            while (groupEnd < order.length && starts[order[groupEnd]] == start) {
+                groupEnd++;
+            }
+            while (heapSize > 0 && ends[heap[0]] <= start) {
+                heap[0] = heap[--heapSize];
+                siftDown(heap, heapSize, ends);
+            }
+            for (int k = group; k < groupEnd; k++) {
+                int current = order[k];
+                for (int h = 0; h < heapSize; h++) {
+                    conflicts.add(conflict(items, heap[h], current));
+                }
+                for (int j = group; j < k; j++) {
+                    conflicts.add(conflict(items, order[j], current));
+                }
+            }
+            for (int k = group; k < groupEnd; k++) {
+                heap[heapSize] = order[k];
+                siftUp(heap, heapSize++, ends);
+            }
+            group = groupEnd;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> OverlapReport.Conflict<T> conflict(Object[] items, int first, int second) {
+        return new OverlapReport.Conflict<>((T) items[first], (T) items[second]);
+    }
+
+    private static void siftUp(int[] heap, int position, long[] ends) {
+        int item = heap[position];
+        while (position > 0) {
+            int parent = (position - 1) >>> 1;
+            if (ends[heap[parent]] <= ends[item]) {
+                break;
+            }
+            heap[position] = heap[parent];
+            position = parent;
+        }
+        heap[position] = item;
+    }
+
+    private static void siftDown(int[] heap, int size, long[] ends) {
+        if (size == 0) {
+            return;
+        }
+        int item = heap[0];
+        int position = 0;
+        int half = size >>> 1;
+        while (position < half) {
+            int child = 2 * position + 1;
+            if (child + 1 < size && ends[heap[child + 1]] < ends[heap[child]]) {
+                child++;
+            }
+            if (ends[item] <= ends[heap[child]]) {
+                break;
+            }
+            heap[position] = heap[child];
+            position = child;
+        }
+        heap[position] = item;
+    }
+
+}
@@ -0,0 +1,49 @@
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Esito di un controllo di sovrapposizione tra periodi, prodotto da {@link OverlapDetector}.
+ * Le coppie sono elencate nell'ordine in cui la scansione le incontra, cioè per inizio del secondo elemento.
+ *
+ * @param <T> tipo collezione
+ */
+public final class OverlapReport<T> {
+
+    /**
+     * Coppia di elementi in conflitto: {@code first} inizia prima o insieme a {@code second}.
+     *
+     * @param first  elemento che inizia per primo
+     * @param second elemento che inizia dentro il periodo del primo
+     * @param <T>    tipo collezione
+     */
+    public record Conflict<T>(T first, T second) {
+    }
+
+    private final List<Conflict<T>> conflicts;
+
+    OverlapReport(List<Conflict<T>> conflicts) {
+        this.conflicts = List.copyOf(conflicts);
+    }
+
+    /**
+     * @return vero se è stata trovata almeno una sovrapposizione, falso altrimenti
+     */
+    public boolean hasConflicts() {
+        return !conflicts.isEmpty();
+    }
+
+    /**
+     * @return coppie in conflitto, non modificabile
+     */
+    public List<Conflict<T>> conflicts() {
+        return conflicts;
+    }
+
+    /**
+     * @return prima coppia in conflitto, se presente
+     */
+    public Optional<Conflict<T>> first() {
+        return conflicts.stream().findFirst();
+    }
+
+}
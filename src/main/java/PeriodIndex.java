@@ -0,0 +1,217 @@
+import jakarta.annotation.Nullable;
+import jakarta.validation.constraints.NotNull;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * Indice per periodi, da costruire una volta su una collezione e interrogare più volte con le stesse regole di
+ * {@link DateUtility#entityInPeriod(LocalDate, LocalDate, Function, Function)}: un'entità è restituita se inizia nel periodo,
+ * finisce nel periodo o lo contiene. La fine null dell'entità indica un periodo aperto.
+ * <br>
+ * Le entità sono ordinate per inizio e organizzate come albero di intervalli implicito sull'array ordinato: ogni nodo
+ * conserva la fine massima del proprio sotto-albero, quindi una query costa O(log n + k), con k entità restituite.
+ * <pre>
+ *     {@code PeriodIndex<SkillDto, LocalDate> index = PeriodIndex.ofDates(skills, SkillDto::getDataInizio, SkillDto::getDataFine);}
+ *     {@code List<SkillDto> inPeriod = index.query(inizioPeriodo, finePeriodo);}
+ * </pre>
+ *
+ * @param <T> tipo entità
+ * @param <P> tipo estremo del periodo
+ */
+public final class PeriodIndex<T, P extends Comparable<? super P>> {
+
+    private static final long OPEN_END = Long.MAX_VALUE;
+
+    private final ToLongFunction<P> keys;
+    private final Object[] entities;
+    private final long[] starts;
+    private final long[] ends;
+    private final long[] maxEnds;
+    private final long[] prefixMaxEnds;
+
+    private PeriodIndex(Collection<T> collection,
+                        Function<T, P> getterStart,
+                        Function<T, P> getterEnd,
+                        ToLongFunction<P> keys) {
+        var measure = Instrumentation.start();
+        this.keys = keys;
+        int size = collection.size();
+        Object[] unsortedEntities = new Object[size];
+        long[] unsortedStarts = new long[size];
+        long[] unsortedEnds = new long[size];
+        int i = 0;
+        for (var t : collection) {
+            P startEntityValidity = Objects.requireNonNull(getterStart.apply(t), "Entity start must not be null.");
+            @Nullable P endEntityValidity = getterEnd.apply(t);
+            if (endEntityValidity != null && startEntityValidity.compareTo(endEntityValidity) > 0)
+                throw new IllegalArgumentException("End period must be greater or equal start period.");
+            unsortedEntities[i] = t;
+            unsortedStarts[i] = keys.applyAsLong(startEntityValidity);
+            unsortedEnds[i] = endEntityValidity == null ? OPEN_END : keys.applyAsLong(endEntityValidity);
+            i++;
+        }
+        int[] order = PrimitiveSort.sortedIndexes(unsortedStarts);
+        this.entities = new Object[size];
+        for (int j = 0; j < size; j++) {
+            entities[j] = unsortedEntities[order[j]];
+        }
+        this.starts = PrimitiveSort.permute(unsortedStarts, order);
+        this.ends = PrimitiveSort.permute(unsortedEnds, order);
+        this.maxEnds = new long[size];
+        buildMaxEnds(0, size);
+        this.prefixMaxEnds = new long[size];
+        for (int j = 0; j < size; j++) {
+            prefixMaxEnds[j] = j == 0 ? ends[0] : Math.max(prefixMaxEnds[j - 1], ends[j]);
+        }
+        Instrumentation.stop(Instrumentation.Operation.PERIOD_INDEX_BUILD, size, measure);
+    }
+
+    /**
+     * Costruisce l'indice su una collezione con periodi di date.
+     *
+     * @param collection  collezione, non null
+     * @param getterStart getter inizio entità, non null
+     * @param getterEnd   getter fine entità, non null; il valore restituito può essere null
+     * @param <T>         tipo entità
+     * @return indice
+     * @throws IllegalArgumentException se un'entità ha fine precedente all'inizio
+     */
+    public static <T> PeriodIndex<T, LocalDate> ofDates(@NotNull Collection<T> collection,
+                                                        @NotNull Function<T, LocalDate> getterStart,
+                                                        @NotNull Function<T, LocalDate> getterEnd) {
+        return new PeriodIndex<>(collection, getterStart, getterEnd, LocalDate::toEpochDay);
+    }
+
+    /**
+     * Costruisce l'indice su una collezione con periodi di date-time.
+     *
+     * @param collection  collezione, non null
+     * @param getterStart getter inizio entità, non null
+     * @param getterEnd   getter fine entità, non null; il valore restituito può essere null
+     * @param <T>         tipo entità
+     * @return indice
+     * @throws IllegalArgumentException se un'entità ha fine precedente all'inizio
+     */
+    public static <T> PeriodIndex<T, LocalDateTime> ofDateTimes(@NotNull Collection<T> collection,
+                                                                @NotNull Function<T, LocalDateTime> getterStart,
+                                                                @NotNull Function<T, LocalDateTime> getterEnd) {
+        return new PeriodIndex<>(collection, getterStart, getterEnd, DateTimeKeys.of(collection, getterStart, getterEnd));
+    }
+
+    /**
+     * Restituisce le entità che intersecano il periodo in ingresso, ordinate per inizio.
+     *
+     * @param startPeriod inizio periodo controllo, non null
+     * @param endPeriod   fine periodo controllo, non null
+     * @return entità che iniziano nel periodo, finiscono nel periodo o lo contengono
+     * @throws IllegalArgumentException se la fine del periodo precede l'inizio
+     */
+    public List<T> query(@NotNull P startPeriod, @NotNull P endPeriod) {
+        List<T> result = new ArrayList<>();
+        forEach(startPeriod, endPeriod, result::add);
+        return result;
+    }
+
+    /**
+     * Applica un'azione a ogni entità che interseca il periodo in ingresso, in ordine di inizio.
+     *
+     * @param startPeriod inizio periodo controllo, non null
+     * @param endPeriod   fine periodo controllo, non null
+     * @param action      azione, non null
+     * @throws IllegalArgumentException se la fine del periodo precede l'inizio
+     */
+    public void forEach(@NotNull P startPeriod, @NotNull P endPeriod, @NotNull Consumer<? super T> action) {
+        if (startPeriod.compareTo(endPeriod) > 0)
+            throw new IllegalArgumentException("End period must be greater or equal start period.");
+        var measure = Instrumentation.start();
+        long from = keys.applyAsLong(startPeriod);
+        long to = keys.applyAsLong(endPeriod);
+        visit(0, entities.length, from, to, action);
+        Instrumentation.stop(Instrumentation.Operation.PERIOD_INDEX_QUERY, entities.length, measure);
+    }
+
+    /**
+     * Conta le entità che intersecano il periodo in ingresso.
+     *
+     * @param startPeriod inizio periodo controllo, non null
+     * @param endPeriod   fine periodo controllo, non null
+     * @return numero di entità
+     * @throws IllegalArgumentException se la fine del periodo precede l'inizio
+     */
+    public int count(@NotNull P startPeriod, @NotNull P endPeriod) {
+        int[] count = new int[1];
+        forEach(startPeriod, endPeriod, t -> count[0]++);
+        return count[0];
+    }
+
+    /**
+     * Controlla se almeno un'entità interseca il periodo in ingresso.
+     *
+     * @param startPeriod inizio periodo controllo, non null
+     * @param endPeriod   fine periodo controllo, non null
+     * @return vero se esiste un'intersezione, falso altrimenti
+     * @throws IllegalArgumentException se la fine del periodo precede l'inizio
+     */
+    public boolean anyInPeriod(@NotNull P startPeriod, @NotNull P endPeriod) {
+        if (startPeriod.compareTo(endPeriod) > 0)
+            throw new IllegalArgumentException("End period must be greater or equal start period.");
+        long from = keys.applyAsLong(startPeriod);
+        long to = keys.applyAsLong(endPeriod);
+        // le entità con inizio <= to sono un prefisso dell'array: basta la fine massima di quel prefisso
+        int lo = 0;
+        int hi = entities.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (starts[mid] > to) {
+                hi = mid;
+            } else {
+                lo = mid + 1;
+            }
+        }
+        return lo > 0 && prefixMaxEnds[lo - 1] >= from;
+    }
+
+    /**
+     * @return numero di entità indicizzate
+     */
+    public int size() {
+        return entities.length;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void visit(int lo, int hi, long from, long to, Consumer<? super T> action) {
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (maxEnds[mid] < from) {
+                return;
+            }
+            visit(lo, mid, from, to, action);
+            if (starts[mid] > to) {
+                return;
+            }
+            if (ends[mid] >= from) {
+                action.accept((T) entities[mid]);
+            }
+            lo = mid + 1;
+        }
+    }
+
+    private long buildMaxEnds(int lo, int hi) {
+        if (lo >= hi) {
+            return Long.MIN_VALUE;
+        }
+        int mid = (lo + hi) >>> 1;
+        long max = Math.max(ends[mid], Math.max(buildMaxEnds(lo, mid), buildMaxEnds(mid + 1, hi)));
+        maxEnds[mid] = max;
+        return max;
+    }
+
+}
@@ -0,0 +1,419 @@
+import jakarta.annotation.Nullable;
+import jakarta.validation.constraints.NotNull;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Insieme immutabile di periodi, normalizzato in intervalli disgiunti e non adiacenti, memorizzati come array ordinato di
+ * estremi primitivi. Unione, intersezione, differenza e complemento sono fusioni lineari dei due array.
+ * <br>
+ * Gli estremi sono inclusi, come in {@link DateUtility#checkInclusiveElement(LocalDate, LocalDate, LocalDate, LocalDate)} e
+ * {@link DateUtility#entityInPeriod(LocalDate, LocalDate, Function, Function)}, quindi due periodi consecutivi ([1, 3] e
+ * [4, 5]) si fondono in uno solo. Per i date-time l'unità è il microsecondo: i periodi con precisione inferiore sono
+ * rifiutati alla costruzione, mentre gli argomenti delle query sono troncati al microsecondo. La fine null indica un
+ * periodo aperto; l'inizio null compare solo nei risultati di {@link #complement()} e indica un periodo senza inizio.
+ * <pre>
+ *     {@code PeriodSet<LocalDate> coperti = PeriodSet.ofDates(contratti, ContrattoDto::getDataInizio, ContrattoDto::getDataFine);}
+ *     {@code PeriodSet<LocalDate> scoperti = coperti.gaps(inizioAnno, fineAnno);}
+ * </pre>
+ *
+ * @param <P> tipo estremo dei periodi
+ */
+public final class PeriodSet<P extends Comparable<? super P>> {
+
+    /**
+     * Periodo di un insieme
+     *
+     * @param start inizio, null se il periodo non ha inizio
+     * @param end   fine, null se il periodo è aperto
+     * @param <P>   tipo estremo
+     */
+    public record Period<P>(@Nullable P start, @Nullable P end) {
+    }
+
+    private static final long OPEN_START = Long.MIN_VALUE;
+    private static final long OPEN_END = Long.MAX_VALUE;
+    private static final long[] UNIVERSE = {OPEN_START, OPEN_END};
+
+    private static final Codec<LocalDate> DATES = new Codec<>() {
+        @Override
+        long start(LocalDate date) {
+            return date.toEpochDay();
+        }
+
+        @Override
+        long end(LocalDate date) {
+            return date.toEpochDay() + 1;
+        }
+
+        @Override
+        LocalDate start(long key) {
+            return LocalDate.ofEpochDay(key);
+        }
+
+        @Override
+        LocalDate end(long key) {
+            return LocalDate.ofEpochDay(key - 1);
+        }
+    };
+
+    private static final Codec<LocalDateTime> DATE_TIMES = new Codec<>() {
+        @Override
+        void check(LocalDateTime dateTime) {
+            if (dateTime.getNano() % 1000 != 0)
+                throw new IllegalArgumentException("Date-time precision finer than microseconds is not supported.");
+        }
+
+        @Override
+        long start(LocalDateTime dateTime) {
+            return Math.addExact(Math.multiplyExact(dateTime.toEpochSecond(ZoneOffset.UTC), 1_000_000L), dateTime.getNano() / 1000);
+        }
+
+        @Override
+        long end(LocalDateTime dateTime) {
+            return start(dateTime) + 1;
+        }
+
+        @Override
+        LocalDateTime start(long key) {
+            return LocalDateTime.ofEpochSecond(Math.floorDiv(key, 1_000_000L), (int) Math.floorMod(key, 1_000_000L) * 1000, ZoneOffset.UTC);
+        }
+
+        @Override
+        LocalDateTime end(long key) {
+            return start(key - 1);
+        }
+    };
+
+    private final Codec<P> codec;
+    private final long[] bounds;
+
+    private PeriodSet(Codec<P> codec, long[] bounds) {
+        this.codec = codec;
+        this.bounds = bounds;
+    }
+
+    /**
+     * Costruisce l'insieme dei periodi di date di una collezione.
+     *
+     * @param collection  collezione, non null
+     * @param getterStart getter inizio entità, non null; il valore restituito non può essere null
+     * @param getterEnd   getter fine entità, inclusa, non null; il valore restituito può essere null
+     * @param <T>         tipo entità
+     * @return insieme dei periodi
+     * @throws IllegalArgumentException se un'entità ha fine precedente all'inizio
+     */
+    public static <T> PeriodSet<LocalDate> ofDates(@NotNull Collection<T> collection,
+                                                   @NotNull Function<T, LocalDate> getterStart,
+                                                   @NotNull Function<T, LocalDate> getterEnd) {
+        return of(collection, getterStart, getterEnd, DATES);
+    }
+
+    /**
+     * Costruisce l'insieme dei periodi di date-time di una collezione.
+     *
+     * @param collection  collezione, non null
+     * @param getterStart getter inizio entità, non null; il valore restituito non può essere null
+     * @param getterEnd   getter fine entità, inclusa, non null; il valore restituito può essere null
+     * @param <T>         tipo entità
+     * @return insieme dei periodi
+     * @throws IllegalArgumentException se un'entità ha fine precedente all'inizio o precisione inferiore al microsecondo
+     */
+    public static <T> PeriodSet<LocalDateTime> ofDateTimes(@NotNull Collection<T> collection,
+                                                           @NotNull Function<T, LocalDateTime> getterStart,
+                                                           @NotNull Function<T, LocalDateTime> getterEnd) {
+        return of(collection, getterStart, getterEnd, DATE_TIMES);
+    }
+
+    /**
+     * Insieme formato da un solo periodo di date.
+     *
+     * @param start inizio, non null
+     * @param end   fine inclusa, null se aperto
+     * @return insieme
+     */
+    public static PeriodSet<LocalDate> ofDates(@NotNull LocalDate start, @Nullable LocalDate end) {
+        return ofDates(List.of(start), Function.identity(), d -> end);
+    }
+
+    /**
+     * Insieme formato da un solo periodo di date-time.
+     *
+     * @param start inizio, non null
+     * @param end   fine inclusa, null se aperto
+     * @return insieme
+     * @throws IllegalArgumentException se la fine precede l'inizio o un estremo ha precisione inferiore al microsecondo
+     */
+    public static PeriodSet<LocalDateTime> ofDateTimes(@NotNull LocalDateTime start, @Nullable LocalDateTime end) {
+        return ofDateTimes(List.of(start), Function.identity(), d -> end);
+    }
+
+    private static <T, P extends Comparable<? super P>> PeriodSet<P> of(Collection<T> collection,
+                                                                        Function<T, P> getterStart,
+                                                                        Function<T, P> getterEnd,
+                                                                        Codec<P> codec) {
+        long[] starts = new long[collection.size()];
+        long[] ends = new long[collection.size()];
+        int size = 0;
+        for (var t : collection) {
+            P start = Objects.requireNonNull(getterStart.apply(t), "Start must not be null.");
+            @Nullable P end = getterEnd.apply(t);
+            if (end != null && start.compareTo(end) > 0)
+                throw new IllegalArgumentException("End period must be greater or equal start period.");
+            codec.check(start);
+            if (end != null) {
+                codec.check(end);
+            }
+            long startKey = codec.start(start);
+            long endKey = end == null ? OPEN_END : codec.end(end);
+            if (startKey < endKey) {
+                starts[size] = startKey;
+                ends[size] = endKey;
+                size++;
+            }
+        }
+        int[] order = PrimitiveSort.sortedIndexes(Arrays.copyOf(starts, size));
+        long[] bounds = new long[size * 2];
+        int length = 0;
+        for (int index : order) {
+            if (length > 0 && starts[index] <= bounds[length - 1]) {
+                bounds[length - 1] = Math.max(bounds[length - 1], ends[index]);
+            } else {
+                bounds[length++] = starts[index];
+                bounds[length++] = ends[index];
+            }
+        }
+        return new PeriodSet<>(codec, Arrays.copyOf(bounds, length));
+    }
+
+    /**
+     * @param other altro insieme
+     * @return periodi coperti da almeno uno dei due insiemi
+     */
+    public PeriodSet<P> union(@NotNull PeriodSet<P> other) {
+        return new PeriodSet<>(codec, combine(bounds, other.bounds, Operation.UNION));
+    }
+
+    /**
+     * @param other altro insieme
+     * @return periodi coperti da entrambi gli insiemi
+     */
+    public PeriodSet<P> intersect(@NotNull PeriodSet<P> other) {
+        return new PeriodSet<>(codec, combine(bounds, other.bounds, Operation.INTERSECTION));
+    }
+
+    /**
+     * @param other altro insieme
+     * @return periodi coperti da questo insieme e non dall'altro
+     */
+    public PeriodSet<P> difference(@NotNull PeriodSet<P> other) {
+        return new PeriodSet<>(codec, combine(bounds, other.bounds, Operation.DIFFERENCE));
+    }
+
+    /**
+     * @return periodi non coperti dall'insieme, su tutta la linea del tempo
+     */
+    public PeriodSet<P> complement() {
+        return new PeriodSet<>(codec, combine(UNIVERSE, bounds, Operation.DIFFERENCE));
+    }
+
+    /**
+     * Restituisce i buchi dell'insieme all'interno di un periodo.
+     *
+     * @param start inizio periodo, non null
+     * @param end   fine periodo, null se aperto
+     * @return periodi non coperti all'interno del periodo
+     */
+    public PeriodSet<P> gaps(@NotNull P start, @Nullable P end) {
+        return new PeriodSet<>(codec, combine(window(start, end), bounds, Operation.DIFFERENCE));
+    }
+
+    /**
+     * Controlla che un istante sia coperto dall'insieme.
+     *
+     * @param point data o date-time, non null
+     * @return vero se coperto, falso altrimenti
+     */
+    public boolean contains(@NotNull P point) {
+        long key = codec.start(point);
+        int interval = intervalAtOrBefore(key);
+        return interval >= 0 && key < bounds[interval + 1];
+    }
+
+    /**
+     * Controlla che un periodo sia interamente coperto da un solo intervallo dell'insieme, con le regole di
+     * {@link DateUtility#checkInclusiveElement(LocalDate, LocalDate, LocalDate, LocalDate)}.
+     *
+     * @param start inizio periodo, non null
+     * @param end   fine periodo, null se aperto
+     * @return vero se coperto, falso altrimenti
+     */
+    public boolean containsPeriod(@NotNull P start, @Nullable P end) {
+        long[] window = window(start, end);
+        int interval = intervalAtOrBefore(window[0]);
+        return interval >= 0 && window[1] <= bounds[interval + 1];
+    }
+
+    /**
+     * Controlla che un periodo abbia almeno un istante coperto dall'insieme.
+     *
+     * @param start inizio periodo, non null
+     * @param end   fine periodo, null se aperto
+     * @return vero se vi è intersezione, falso altrimenti
+     */
+    public boolean intersects(@NotNull P start, @Nullable P end) {
+        long[] window = window(start, end);
+        int interval = intervalAtOrBefore(window[1] == OPEN_END ? OPEN_END : window[1] - 1);
+        return interval >= 0 && bounds[interval + 1] > window[0];
+    }
+
+    /**
+     * Misura la parte di un periodo coperta dall'insieme, estremi inclusi: giorni per le date, microsecondi per i date-time.
+     *
+     * @param start inizio periodo, non null
+     * @param end   fine periodo, non null
+     * @return quantità coperta
+     */
+    public long coveredLength(@NotNull P start, @NotNull P end) {
+        long[] covered = combine(window(start, end), bounds, Operation.INTERSECTION);
+        long length = 0;
+        for (int i = 0; i < covered.length; i += 2) {
+            length += covered[i + 1] - covered[i];
+        }
+        return length;
+    }
+
+    /**
+     * @return periodi dell'insieme, ordinati e disgiunti
+     */
+    public List<Period<P>> periods() {
+        List<Period<P>> periods = new ArrayList<>(bounds.length / 2);
+        for (int i = 0; i < bounds.length; i += 2) {
+            periods.add(new Period<>(bounds[i] == OPEN_START ? null : codec.start(bounds[i]),
+                    bounds[i + 1] == OPEN_END ? null : codec.end(bounds[i + 1])));
+        }
+        return periods;
+    }
+
+    /**
+     * @return numero di periodi disgiunti
+     */
+    public int size() {
+        return bounds.length / 2;
+    }
+
+    /**
+     * @return vero se l'insieme non copre nulla, falso altrimenti
+     */
+    public boolean isEmpty() {
+        return bounds.length == 0;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof PeriodSet<?> other && codec == other.codec && Arrays.equals(bounds, other.bounds);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(bounds);
+    }
+
+    @Override
+    public String toString() {
+        return periods().toString();
+    }
+
+    private long[] window(P start, P end) {
+        if (end != null && start.compareTo(end) > 0)
+            throw new IllegalArgumentException("End period must be greater or equal start period.");
+        return new long[]{codec.start(start), end == null ? OPEN_END : codec.end(end)};
+    }
+
+    /**
+     * @return posizione nell'array dell'inizio dell'ultimo intervallo che inizia prima o in corrispondenza della chiave, -1 se nessuno
+     */
+    private int intervalAtOrBefore(long key) {
+        int lo = 0;
+        int hi = bounds.length / 2 - 1;
+        int found = -1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            if (bounds[mid * 2] <= key) {
+                found = mid * 2;
+                lo = mid + 1;
+            } else {
+                hi = mid - 1;
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Fonde gli estremi di due insiemi normalizzati: ogni estremo cambia l'appartenenza al proprio insieme e l'operazione
+     * decide l'appartenenza al risultato. Gli estremi del risultato sono i punti in cui questa cambia.
+     */
+    private static long[] combine(long[] a, long[] b, Operation operation) {
+        long[] result = new long[a.length + b.length];
+        int length = 0;
+        int i = 0;
+        int j = 0;
+        boolean inside = false;
+        while (i < a.length || j < b.length) {
+            long point = Math.min(i < a.length ? a[i] : OPEN_END, j < b.length ? b[j] : OPEN_END);
+            if (i < a.length && a[i] == point) {
+                i++;
+            }
+            if (j < b.length && b[j] == point) {
+                j++;
+            }
+            boolean nowInside = operation.test((i & 1) == 1, (j & 1) == 1);
+            if (nowInside != inside) {
+                result[length++] = point;
+                inside = nowInside;
+            }
+        }
+        return Arrays.copyOf(result, length);
+    }
+
+    private enum Operation {
+        UNION, INTERSECTION, DIFFERENCE;
+
+        boolean test(boolean inA, boolean inB) {
+            return switch (this) {
+                case UNION -> inA || inB;
+                case INTERSECTION -> inA && inB;
+                case DIFFERENCE -> inA && !inB;
+            };
+        }
+    }
+
+    /**
+     * Conversione tra estremi e chiavi: gli estremi sono inclusi, la fine è convertita in chiave esclusa
+     */
+    private abstract static class Codec<P> {
+
+        /**
+         * Controlla che un estremo sia rappresentabile senza perdita, alla costruzione dell'insieme.
+         */
+        void check(P value) {
+        }
+
+        abstract long start(P value);
+
+        abstract long end(P value);
+
+        abstract P start(long key);
+
+        abstract P end(long key);
+    }
+
+}
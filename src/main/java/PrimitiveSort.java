@@ -0,0 +1,106 @@
+/**
+ * Ordinamenti su chiavi primitive, usati dalle strutture a periodi per evitare comparatori e oggetti boxed.
+ * L'ordinamento produce una permutazione di indici, così da poter riordinare più array paralleli in un colpo solo.
+ */
+final class PrimitiveSort {
+
+    private static final int INSERTION_THRESHOLD = 32;
+
+    private PrimitiveSort() {
+    }
+
+    /**
+     * Restituisce la permutazione stabile di indici che ordina le chiavi in modo crescente.
+     *
+     * @param keys chiavi
+     * @return indici ordinati per chiave
+     */
+    static int[] sortedIndexes(long[] keys) {
+        int[] indexes = new int[keys.length];
+        for (int i = 0; i < indexes.length; i++) {
+            indexes[i] = i;
+        }
+        sortIndexes(indexes, keys);
+        return indexes;
+    }
+
+    /**
+     * Riordina in modo stabile una permutazione di indici secondo le chiavi. Applicando prima la chiave secondaria e poi
+     * quella primaria si ottiene un ordinamento composto.
+     *
+     * @param indexes indici da riordinare
+     * @param keys    chiavi, indirizzate dagli indici
+     */
+    static void sortIndexes(int[] indexes, long[] keys) {
+        int n = indexes.length;
+        for (int lo = 0; lo < n; lo += INSERTION_THRESHOLD) {
+            insertionSort(indexes, keys, lo, Math.min(lo + INSERTION_THRESHOLD, n));
+        }
+        if (n <= INSERTION_THRESHOLD) {
+            return;
+        }
+        int[] src = indexes;
+        int[] dst = new int[n];
+        for (int width = INSERTION_THRESHOLD; width < n; width <<= 1) {
+            for (int lo = 0; lo < n; lo += width << 1) {
+                int mid = Math.min(lo + width, n);
+                int hi = Math.min(lo + (width << 1), n);
+                merge(src, dst, keys, lo, mid, hi);
+            }
+            int[] swap = src;
+            src = dst;
+            dst = swap;
+        }
+        if (src != indexes) {
+            System.arraycopy(src, 0, indexes, 0, n);
+        }
+    }
+
+    /**
+     * Applica una permutazione a un array di chiavi.
+     *
+     * @param values  valori
+     * @param indexes permutazione
+     * @return nuovo array con values[indexes[i]] in posizione i
+     */
+    static long[] permute(long[] values, int[] indexes) {
+        long[] permuted = new long[indexes.length];
+        for (int i = 0; i < indexes.length; i++) {
+            permuted[i] = values[indexes[i]];
+        }
+        return permuted;
+    }
+
+    private static void insertionSort(int[] indexes, long[] keys, int lo, int hi) {
+        for (int i = lo + 1; i < hi; i++) {
+            int current = indexes[i];
+            long key = keys[current];
+            int j = i - 1;
+            while (j >= lo && keys[indexes[j]] > key) {
+                indexes[j + 1] = indexes[j];
+                j--;
+            }
+            indexes[j + 1] = current;
+        }
+    }
+
+    private static void merge(int[] src, int[] dst, long[] keys, int lo, int mid, int hi) {
+        int i = lo;
+        int j = mid;
+        int k = lo;
+        if (mid >= hi || keys[src[mid - 1]] <= keys[src[mid]]) {
+            System.arraycopy(src, lo, dst, lo, hi - lo);
+            return;
+        }
+        while (i < mid && j < hi) {
+            dst[k++] = keys[src[j]] < keys[src[i]] ? src[j++] : src[i++];
+        }
+        while (i < mid) {
+            dst[k++] = src[i++];
+        }
+        while (j < hi) {
+            dst[k++] = src[j++];
+        }
+    }
+
+}
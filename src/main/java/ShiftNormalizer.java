@@ -0,0 +1,385 @@
+import jakarta.validation.constraints.NotNull;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * Normalizzazione a blocchi di timbrature espresse come giorno e millisecondi dalla mezzanotte, al posto della catena
+ * {@link DateUtility#getLocalTimeFromMillis(long)}, {@link DateUtility#createDateTime(java.time.LocalDate, java.time.LocalTime)}
+ * e {@link DateUtility#checkCrossDay(LocalDateTime, LocalDateTime)} riga per riga.
+ * <br>
+ * Ogni riga (giorno dall'epoch, millisecondi di inizio, millisecondi di fine) diventa una coppia di secondi dall'epoch in ora
+ * locale: i millisecondi sono riportati nel giorno come in {@link EpochDateTimes#normalizeMillisOfDay(long)} e una fine non
+ * successiva all'inizio passa al giorno dopo, confrontando al millisecondo come i metodi su {@link LocalDateTime}. Le righe
+ * con una timbratura mancante ({@link #MISSING}) o fuori dalla finestra di validità sono segnalate con dei flag. I
+ * risultati sono scritti in array forniti dal chiamante, senza allocazioni per riga.
+ * <br>
+ * Per file grandi {@link #stage(int, Consumer)} accumula le righe in blocchi di dimensione fissa, riusati tra un blocco e il
+ * successivo.
+ * <pre>
+ *     {@code var normalizer = ShiftNormalizer.withWindow(inizioMese, fineMese);}
+ *     {@code try (var stage = normalizer.stage(8192, chunk -> salva(chunk))) {}
+ *     {@code     reader.forEach(r -> stage.accept(r.giorno(), r.entrata(), r.uscita()));}
+ *     {@code }}
+ * </pre>
+ */
+public final class ShiftNormalizer {
+
+    /**
+     * Millisecondi di una timbratura mancante
+     */
+    public static final int MISSING = Integer.MIN_VALUE;
+
+    /**
+     * Flag: manca la timbratura di inizio
+     */
+    public static final byte MISSING_START = 1;
+
+    /**
+     * Flag: manca la timbratura di fine
+     */
+    public static final byte MISSING_END = 1 << 1;
+
+    /**
+     * Flag: l'inizio è fuori dalla finestra di validità
+     */
+    public static final byte START_OUT_OF_WINDOW = 1 << 2;
+
+    /**
+     * Flag: la fine, dopo il passaggio al giorno successivo, è fuori dalla finestra di validità
+     */
+    public static final byte END_OUT_OF_WINDOW = 1 << 3;
+
+    private static final ShiftNormalizer UNBOUNDED = new ShiftNormalizer(Long.MIN_VALUE, Long.MAX_VALUE);
+
+    private final long windowStart;
+    private final long windowEnd;
+
+    private ShiftNormalizer(long windowStart, long windowEnd) {
+        if (windowStart > windowEnd)
+            throw new IllegalArgumentException("End period must be greater or equal start period.");
+        this.windowStart = windowStart;
+        this.windowEnd = windowEnd;
+    }
+
+    /**
+     * @return normalizzazione senza finestra di validità
+     */
+    public static ShiftNormalizer unbounded() {
+        return UNBOUNDED;
+    }
+
+    /**
+     * @param windowStart inizio finestra di validità, in secondi dall'epoch in ora locale, incluso
+     * @param windowEnd   fine finestra di validità, in secondi dall'epoch in ora locale, inclusa
+     * @return normalizzazione che segnala le timbrature fuori dalla finestra, come
+     * {@link EpochDateTimes#isBetweenPeriod(long, long, long)}
+     * @throws IllegalArgumentException se la fine precede l'inizio
+     */
+    public static ShiftNormalizer withWindow(long windowStart, long windowEnd) {
+        return new ShiftNormalizer(windowStart, windowEnd);
+    }
+
+    /**
+     * @param windowStart inizio finestra di validità, incluso, non null
+     * @param windowEnd   fine finestra di validità, inclusa, non null
+     * @return normalizzazione che segnala le timbrature fuori dalla finestra, troncata al secondo
+     * @throws IllegalArgumentException se la fine precede l'inizio
+     */
+    public static ShiftNormalizer withWindow(@NotNull LocalDateTime windowStart, @NotNull LocalDateTime windowEnd) {
+        return new ShiftNormalizer(EpochDateTimes.toEpochSecond(windowStart), EpochDateTimes.toEpochSecond(windowEnd));
+    }
+
+    /**
+     * Normalizza tutte le righe degli array in ingresso.
+     *
+     * @param epochDays   giorni dall'epoch delle timbrature, non null
+     * @param startMillis millisecondi dalla mezzanotte di inizio, {@link #MISSING} se mancante, non null
+     * @param endMillis   millisecondi dalla mezzanotte di fine, {@link #MISSING} se mancante, non null
+     * @param starts      inizi in secondi dall'epoch, della stessa lunghezza, non null
+     * @param ends        fini in secondi dall'epoch, della stessa lunghezza, non null
+     * @param flags       flag di ogni riga, 0 se valida, della stessa lunghezza, non null
+     * @return numero di righe non valide
+     * @throws IllegalArgumentException se gli array hanno lunghezze diverse
+     */
+    public int normalize(@NotNull int[] epochDays, @NotNull int[] startMillis, @NotNull int[] endMillis,
+                         @NotNull long[] starts, @NotNull long[] ends, @NotNull byte[] flags) {
+        int length = epochDays.length;
+        if (startMillis.length != length || endMillis.length != length
+                || starts.length != length || ends.length != length || flags.length != length)
+            throw new IllegalArgumentException("Input and output arrays must have the same length.");
+        return normalize(epochDays, startMillis, endMillis, 0, starts, ends, flags, 0, length);
+    }
+
+    /**
+     * Normalizza length righe a partire da srcOffset, scrivendo i risultati a partire da dstOffset. Per una timbratura
+     * mancante l'estremo corrispondente vale {@link EpochDateTimes#OPEN_END}.
+     *
+     * @param epochDays   giorni dall'epoch delle timbrature, non null
+     * @param startMillis millisecondi dalla mezzanotte di inizio, {@link #MISSING} se mancante, non null
+     * @param endMillis   millisecondi dalla mezzanotte di fine, {@link #MISSING} se mancante, non null
+     * @param srcOffset   prima riga in ingresso
+     * @param starts      inizi in secondi dall'epoch, non null
+     * @param ends        fini in secondi dall'epoch, non null
+     * @param flags       flag di ogni riga, 0 se valida, non null
+     * @param dstOffset   prima riga in uscita
+     * @param length      numero di righe
+     * @return numero di righe non valide
+     * @throws IndexOutOfBoundsException se le righe escono da uno degli array
+     */
+    public int normalize(@NotNull int[] epochDays, @NotNull int[] startMillis, @NotNull int[] endMillis, int srcOffset,
+                         @NotNull long[] starts, @NotNull long[] ends, @NotNull byte[] flags, int dstOffset, int length) {
+        Objects.checkFromIndexSize(srcOffset, length, epochDays.length);
+        Objects.checkFromIndexSize(srcOffset, length, startMillis.length);
+        Objects.checkFromIndexSize(srcOffset, length, endMillis.length);
+        Objects.checkFromIndexSize(dstOffset, length, starts.length);
+        Objects.checkFromIndexSize(dstOffset, length, ends.length);
+        Objects.checkFromIndexSize(dstOffset, length, flags.length);
+        int invalid = 0;
+        for (int i = 0; i < length; i++) {
+            int epochDay = epochDays[srcOffset + i];
+            int startOfDay = startMillis[srcOffset + i];
+            int endOfDay = endMillis[srcOffset + i];
+            long start = EpochDateTimes.OPEN_END;
+            long end = EpochDateTimes.OPEN_END;
+            int flag = 0;
+            if (startOfDay == MISSING) {
+                flag |= MISSING_START;
+            }
+            if (endOfDay == MISSING) {
+                flag |= MISSING_END;
+            }
+            if (startOfDay != MISSING) {
+                long startMilli = EpochDateTimes.createDateTimeMillis(epochDay, EpochDateTimes.normalizeMillisOfDay(startOfDay));
+                start = Math.floorDiv(startMilli, 1000);
+                if (endOfDay != MISSING) {
+                    long endMilli = EpochDateTimes.createDateTimeMillis(epochDay, EpochDateTimes.normalizeMillisOfDay(endOfDay));
+                    end = Math.floorDiv(EpochDateTimes.checkCrossDayMillis(startMilli, endMilli), 1000);
+                }
+            } else if (endOfDay != MISSING) {
+                end = EpochDateTimes.createDateTime(epochDay, EpochDateTimes.normalizeMillisOfDay(endOfDay));
+            }
+            if (startOfDay != MISSING && !EpochDateTimes.isBetweenPeriod(start, windowStart, windowEnd)) {
+                flag |= START_OUT_OF_WINDOW;
+            }
+            if (endOfDay != MISSING && !EpochDateTimes.isBetweenPeriod(end, windowStart, windowEnd)) {
+                flag |= END_OUT_OF_WINDOW;
+            }
+            starts[dstOffset + i] = start;
+            ends[dstOffset + i] = end;
+            flags[dstOffset + i] = (byte) flag;
+            if (flag != 0) {
+                invalid++;
+            }
+        }
+        return invalid;
+    }
+
+    /**
+     * Crea uno stadio di normalizzazione a blocchi: le righe sono accumulate fino a chunkSize, normalizzate e passate a
+     * sink. Il blocco è riusato dopo il ritorno di sink, che quindi non deve trattenerlo.
+     *
+     * @param chunkSize righe per blocco, maggiore di zero
+     * @param sink      consumatore dei blocchi normalizzati, non null
+     * @return stadio, da chiudere per passare l'ultimo blocco parziale
+     * @throws IllegalArgumentException se chunkSize non è positivo
+     */
+    public Stage stage(int chunkSize, @NotNull Consumer<Chunk> sink) {
+        if (chunkSize <= 0)
+            throw new IllegalArgumentException("Chunk size must be greater than zero.");
+        return new Stage(new Chunk(chunkSize), Objects.requireNonNull(sink));
+    }
+
+    /**
+     * Blocco di righe normalizzate, valido solo durante la chiamata del sink
+     */
+    public static final class Chunk {
+
+        private final int[] epochDays;
+        private final int[] startMillis;
+        private final int[] endMillis;
+        private final long[] starts;
+        private final long[] ends;
+        private final byte[] flags;
+        private int size;
+        private int invalid;
+
+        private Chunk(int capacity) {
+            this.epochDays = new int[capacity];
+            this.startMillis = new int[capacity];
+            this.endMillis = new int[capacity];
+            this.starts = new long[capacity];
+            this.ends = new long[capacity];
+            this.flags = new byte[capacity];
+        }
+
+        /**
+         * @return numero di righe
+         */
+        public int size() {
+            return size;
+        }
+
+        /**
+         * @return numero di righe non valide
+         */
+        public int invalidCount() {
+            return invalid;
+        }
+
+        /**
+         * @param row riga
+         * @return giorno dall'epoch in ingresso
+         */
+        public int epochDay(int row) {
+            return epochDays[Objects.checkIndex(row, size)];
+        }
+
+        /**
+         * @param row riga
+         * @return inizio in secondi dall'epoch, {@link EpochDateTimes#OPEN_END} se mancante
+         */
+        public long start(int row) {
+            return starts[Objects.checkIndex(row, size)];
+        }
+
+        /**
+         * @param row riga
+         * @return fine in secondi dall'epoch, {@link EpochDateTimes#OPEN_END} se mancante
+         */
+        public long end(int row) {
+            return ends[Objects.checkIndex(row, size)];
+        }
+
+        /**
+         * @param row riga
+         * @return flag della riga, 0 se valida
+         */
+        public int flags(int row) {
+            return flags[Objects.checkIndex(row, size)];
+        }
+
+        /**
+         * @param row riga
+         * @return vero se la riga non ha flag, falso altrimenti
+         */
+        public boolean isValid(int row) {
+            return flags(row) == 0;
+        }
+
+        /**
+         * Copia inizi e fini del blocco in array del chiamante.
+         *
+         * @param starts    inizi in secondi dall'epoch, non null
+         * @param ends      fini in secondi dall'epoch, non null
+         * @param dstOffset prima posizione in uscita
+         */
+        public void copyTo(@NotNull long[] starts, @NotNull long[] ends, int dstOffset) {
+            System.arraycopy(this.starts, 0, starts, dstOffset, size);
+            System.arraycopy(this.ends, 0, ends, dstOffset, size);
+        }
+    }
+
+    /**
+     * Stadio di normalizzazione a blocchi creato da {@link #stage(int, Consumer)}
+     */
+    public final class Stage implements AutoCloseable {
+
+        private final Chunk chunk;
+        private final Consumer<Chunk> sink;
+        private long rows;
+        private long invalid;
+
+        private Stage(Chunk chunk, Consumer<Chunk> sink) {
+            this.chunk = chunk;
+            this.sink = sink;
+        }
+
+        /**
+         * Aggiunge una riga.
+         *
+         * @param epochDay    giorno dall'epoch
+         * @param startMillis millisecondi dalla mezzanotte di inizio, {@link #MISSING} se mancante
+         * @param endMillis   millisecondi dalla mezzanotte di fine, {@link #MISSING} se mancante
+         */
+        public void accept(int epochDay, int startMillis, int endMillis) {
+            int row = chunk.size++;
+            chunk.epochDays[row] = epochDay;
+            chunk.startMillis[row] = startMillis;
+            chunk.endMillis[row] = endMillis;
+            if (chunk.size == chunk.epochDays.length) {
+                flush();
+            }
+        }
+
+        /**
+         * Aggiunge length righe lette da array, ad esempio da un buffer di lettura del file.
+         *
+         * @param epochDays   giorni dall'epoch, non null
+         * @param startMillis millisecondi dalla mezzanotte di inizio, non null
+         * @param endMillis   millisecondi dalla mezzanotte di fine, non null
+         * @param offset      prima riga
+         * @param length      numero di righe
+         * @throws IndexOutOfBoundsException se le righe escono da uno degli array
+         */
+        public void accept(@NotNull int[] epochDays, @NotNull int[] startMillis, @NotNull int[] endMillis, int offset, int length) {
+            Objects.checkFromIndexSize(offset, length, epochDays.length);
+            Objects.checkFromIndexSize(offset, length, startMillis.length);
+            Objects.checkFromIndexSize(offset, length, endMillis.length);
+            while (length > 0) {
+                int count = Math.min(length, chunk.epochDays.length - chunk.size);
+                System.arraycopy(epochDays, offset, chunk.epochDays, chunk.size, count);
+                System.arraycopy(startMillis, offset, chunk.startMillis, chunk.size, count);
+                System.arraycopy(endMillis, offset, chunk.endMillis, chunk.size, count);
+                chunk.size += count;
+                offset += count;
+                length -= count;
+                if (chunk.size == chunk.epochDays.length) {
+                    flush();
+                }
+            }
+        }
+
+        /**
+         * Normalizza e passa al sink le righe accumulate, anche se il blocco non è pieno.
+         */
+        public void flush() {
+            if (chunk.size == 0) {
+                return;
+            }
+            chunk.invalid = normalize(chunk.epochDays, chunk.startMillis, chunk.endMillis, 0,
+                    chunk.starts, chunk.ends, chunk.flags, 0, chunk.size);
+            rows += chunk.size;
+            invalid += chunk.invalid;
+            try {
+                sink.accept(chunk);
+            } finally {
+                chunk.size = 0;
+            }
+        }
+
+        /**
+         * @return righe passate al sink
+         */
+        public long rowCount() {
+            return rows;
+        }
+
+        /**
+         * @return righe non valide passate al sink
+         */
+        public long invalidCount() {
+            return invalid;
+        }
+
+        /**
+         * Passa al sink l'ultimo blocco parziale.
+         */
+        @Override
+        public void close() {
+            flush();
+        }
+    }
+
+}
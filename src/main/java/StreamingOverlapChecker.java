@@ -0,0 +1,185 @@
+import jakarta.annotation.Nullable;
+import jakarta.validation.constraints.NotNull;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Controllo incrementale delle sovrapposizioni per periodi che arrivano già ordinati per inizio, ad esempio da un cursore
+ * su database, senza materializzare la collezione. Le regole sono quelle di {@link OverlapDetector}.
+ * <br>
+ * Con ingresso ordinato lo stato è costante: l'inizio precedente e il periodo che finisce più tardi. Ogni elemento che si
+ * sovrappone a uno precedente è segnalato una volta, in coppia con il periodo precedente che finisce più tardi o con quello
+ * che ha lo stesso inizio. Per ingressi quasi ordinati si può indicare una finestra di riordino: gli elementi sono
+ * trattenuti in un heap di quella dimensione e un elemento fuori ordine oltre la finestra solleva {@link IllegalStateException}.
+ * <pre>
+ *     {@code var checker = StreamingOverlapChecker.<TurnoDto, LocalDateTime>ofSorted(c -> log.warn("{} / {}", c.first(), c.second()));}
+ *     {@code cursor.forEachRemaining(t -> checker.accept(t.getDataOraInizio(), t.getDataOraFine(), t));}
+ *     {@code checker.finish();}
+ * </pre>
+ *
+ * @param <T> tipo elementi
+ * @param <P> tipo estremo dei periodi
+ */
+public final class StreamingOverlapChecker<T, P extends Comparable<? super P>> {
+
+    private record Entry<T, P>(P start, @Nullable P end, T item, long sequence) {
+    }
+
+    private final Consumer<OverlapReport.Conflict<T>> onConflict;
+    private final int window;
+    private final PriorityQueue<Entry<T, P>> buffer;
+    private long sequence;
+    private long conflicts;
+    private Entry<T, P> previous;
+    private Entry<T, P> latest;
+
+    private StreamingOverlapChecker(int window, Consumer<OverlapReport.Conflict<T>> onConflict) {
+        this.onConflict = onConflict;
+        this.window = window;
+        this.buffer = window == 0
+                ? null
+                : new PriorityQueue<>(window + 1, Comparator.<Entry<T, P>, P>comparing(Entry::start).thenComparingLong(Entry::sequence));
+    }
+
+    /**
+     * Crea un controllo per ingressi ordinati per inizio.
+     *
+     * @param onConflict callback invocata per ogni coppia in conflitto, non null
+     * @param <T>        tipo elementi
+     * @param <P>        tipo estremo dei periodi
+     * @return controllo
+     */
+    public static <T, P extends Comparable<? super P>> StreamingOverlapChecker<T, P> ofSorted(@NotNull Consumer<OverlapReport.Conflict<T>> onConflict) {
+        return new StreamingOverlapChecker<>(0, Objects.requireNonNull(onConflict));
+    }
+
+    /**
+     * Crea un controllo per ingressi quasi ordinati: ogni elemento può arrivare al massimo window posizioni dopo quella che
+     * avrebbe nell'ordinamento per inizio.
+     *
+     * @param window     dimensione della finestra di riordino, maggiore o uguale a zero
+     * @param onConflict callback invocata per ogni coppia in conflitto, non null
+     * @param <T>        tipo elementi
+     * @param <P>        tipo estremo dei periodi
+     * @return controllo
+     */
+    public static <T, P extends Comparable<? super P>> StreamingOverlapChecker<T, P> ofPartiallySorted(int window,
+                                                                                                     @NotNull Consumer<OverlapReport.Conflict<T>> onConflict) {
+        if (window < 0)
+            throw new IllegalArgumentException("Window must be greater or equal zero.");
+        return new StreamingOverlapChecker<>(window, Objects.requireNonNull(onConflict));
+    }
+
+    /**
+     * Controlla uno stream ordinato per inizio e restituisce le coppie in conflitto; in memoria restano solo le coppie
+     * trovate. Il controllo dipende dall'ordine degli elementi, quindi lo stream è consumato sempre in modo sequenziale,
+     * anche se parallelo.
+     *
+     * @param stream      stream, non null
+     * @param getterStart getter inizio, non null; il valore restituito non può essere null
+     * @param getterEnd   getter fine, non null; il valore restituito può essere null
+     * @param window      dimensione della finestra di riordino, 0 per ingressi ordinati
+     * @param <T>         tipo elementi
+     * @param <P>         tipo estremo dei periodi
+     * @return coppie in conflitto
+     * @throws IllegalStateException se un elemento è fuori ordine oltre la finestra
+     */
+    public static <T, P extends Comparable<? super P>> OverlapReport<T> check(@NotNull Stream<T> stream,
+                                                                             @NotNull Function<? super T, P> getterStart,
+                                                                             @NotNull Function<? super T, P> getterEnd,
+                                                                             int window) {
+        List<OverlapReport.Conflict<T>> conflicts = new ArrayList<>();
+        var checker = StreamingOverlapChecker.<T, P>ofPartiallySorted(window, conflicts::add);
+        checker.checkAll(stream.sequential().iterator(), getterStart, getterEnd);
+        return new OverlapReport<>(conflicts);
+    }
+
+    /**
+     * Aggiunge un periodo.
+     *
+     * @param start inizio, non null
+     * @param end   fine, null se aperto
+     * @param item  elemento passato alla callback in caso di conflitto
+     * @throws IllegalStateException se l'inizio precede quello di un elemento già controllato
+     */
+    public void accept(@NotNull P start, @Nullable P end, T item) {
+        var entry = new Entry<>(Objects.requireNonNull(start, "Start must not be null."), end, item, sequence++);
+        if (buffer == null) {
+            check(entry);
+            return;
+        }
+        buffer.add(entry);
+        if (buffer.size() > window) {
+            check(buffer.poll());
+        }
+    }
+
+    /**
+     * Aggiunge tutti gli elementi di un iteratore e chiude il controllo con {@link #finish()}.
+     *
+     * @param iterator    iteratore, non null
+     * @param getterStart getter inizio, non null; il valore restituito non può essere null
+     * @param getterEnd   getter fine, non null; il valore restituito può essere null
+     * @return numero di conflitti segnalati
+     */
+    public long checkAll(@NotNull Iterator<? extends T> iterator,
+                         @NotNull Function<? super T, P> getterStart,
+                         @NotNull Function<? super T, P> getterEnd) {
+        while (iterator.hasNext()) {
+            T t = iterator.next();
+            accept(getterStart.apply(t), getterEnd.apply(t), t);
+        }
+        finish();
+        return conflicts;
+    }
+
+    /**
+     * Controlla gli elementi ancora nella finestra di riordino. Dopo la chiusura il controllo può continuare solo con
+     * periodi che non iniziano prima dell'ultimo controllato.
+     */
+    public void finish() {
+        if (buffer != null) {
+            while (!buffer.isEmpty()) {
+                check(buffer.poll());
+            }
+        }
+    }
+
+    /**
+     * @return numero di conflitti segnalati finora
+     */
+    public long conflictCount() {
+        return conflicts;
+    }
+
+    private void check(Entry<T, P> current) {
+        if (previous != null) {
+            int order = current.start().compareTo(previous.start());
+            if (order < 0)
+                throw new IllegalStateException("Periods must be sorted by start.");
+            if (order == 0) {
+                report(previous, current);
+            } else if (latest.end() == null || current.start().compareTo(latest.end()) < 0) {
+                report(latest, current);
+            }
+        }
+        previous = current;
+        if (latest == null || latest.end() != null && (current.end() == null || current.end().compareTo(latest.end()) > 0)) {
+            latest = current;
+        }
+    }
+
+    private void report(Entry<T, P> first, Entry<T, P> second) {
+        conflicts++;
+        onConflict.accept(new OverlapReport.Conflict<>(first.item(), second.item()));
+    }
+
+}
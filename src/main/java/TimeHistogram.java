@@ -0,0 +1,344 @@
+import jakarta.annotation.Nullable;
+import jakarta.validation.constraints.NotNull;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.OptionalLong;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collector;
+
+/**
+ * Istogramma di entità per giorno, settimana o mese in un intervallo di date, costruito dai Collector di questa classe al
+ * posto di {@code Collectors.groupingBy} su chiavi create per ogni elemento.
+ * <br>
+ * Ogni data è trasformata in un indice intero denso con l'aritmetica dei giorni dall'epoch e conteggi, somme, minimi e
+ * massimi sono accumulati in array primitivi, uniti elemento per elemento negli stream paralleli. Le settimane iniziano di
+ * lunedì, come in {@link DateUtility#getWeekOfYear(java.time.temporal.Temporal)}; i mesi corrispondono a
+ * {@link DateUtility#getYearMonth(int, int)}. Le date fuori dall'intervallo sono contate a parte.
+ * <pre>
+ *     {@code TimeHistogram perMese = turni.parallelStream().collect(TimeHistogram.summing(TimeHistogram.Granularity.MONTH, inizioAnno, fineAnno, TurnoDto::getData, TurnoDto::getMinuti));}
+ *     {@code long minutiMarzo = perMese.sum(perMese.indexOf(LocalDate.of(2024, 3, 1)));}
+ * </pre>
+ */
+public final class TimeHistogram {
+
+    /**
+     * Ampiezza dei bucket
+     */
+    public enum Granularity {
+        /**
+         * Un bucket per giorno
+         */
+        DAY,
+        /**
+         * Un bucket per settimana, da lunedì a domenica
+         */
+        WEEK,
+        /**
+         * Un bucket per mese
+         */
+        MONTH;
+
+        /**
+         * @return numero progressivo del bucket che contiene la data
+         */
+        long key(LocalDate date) {
+            return switch (this) {
+                case DAY -> date.toEpochDay();
+                // il giorno 0 dell'epoch (1970-01-01) è un giovedì, quindi la settimana 0 inizia lunedì 1969-12-29
+                case WEEK -> Math.floorDiv(date.toEpochDay() + 3, 7);
+                case MONTH -> date.getYear() * 12L + date.getMonthValue() - 1;
+            };
+        }
+
+        /**
+         * @return primo giorno del bucket
+         */
+        LocalDate start(long key) {
+            return switch (this) {
+                case DAY -> LocalDate.ofEpochDay(key);
+                case WEEK -> LocalDate.ofEpochDay(key * 7 - 3);
+                case MONTH -> DateUtility.getFirstDayOfMonth(Math.floorMod(key, 12) + 1, (int) Math.floorDiv(key, 12));
+            };
+        }
+    }
+
+    private final Granularity granularity;
+    private final long firstKey;
+    private final boolean spread;
+    private final boolean minMax;
+    private final long[] counts;
+    private final long[] sums;
+    private final long[] mins;
+    private final long[] maxs;
+    private long outOfRange;
+
+    private TimeHistogram(Granularity granularity, LocalDate from, LocalDate to, boolean spread, boolean minMax) {
+        if (from.isAfter(to))
+            throw new IllegalArgumentException("End period must be greater or equal start period.");
+        this.granularity = granularity;
+        this.firstKey = granularity.key(from);
+        this.spread = spread;
+        this.minMax = minMax;
+        int size = Math.toIntExact(granularity.key(to) - firstKey + 1);
+        // con i periodi gli array contengono differenze fino al finisher, quindi serve una posizione in più
+        this.counts = new long[spread ? size + 1 : size];
+        this.sums = new long[counts.length];
+        this.mins = minMax ? filled(size, Long.MAX_VALUE) : null;
+        this.maxs = minMax ? filled(size, Long.MIN_VALUE) : null;
+    }
+
+    /**
+     * Conta le entità per bucket. Le somme valgono 0, minimo e massimo non sono disponibili.
+     *
+     * @param granularity ampiezza dei bucket, non null
+     * @param from        prima data dell'intervallo, non null
+     * @param to          ultima data dell'intervallo, non null
+     * @param date        getter data entità, non null; il valore restituito non può essere null
+     * @param <T>         tipo entità
+     * @return collector
+     */
+    public static <T> Collector<T, ?, TimeHistogram> counting(@NotNull Granularity granularity,
+                                                              @NotNull LocalDate from,
+                                                              @NotNull LocalDate to,
+                                                              @NotNull Function<T, LocalDate> date) {
+        return entities(granularity, from, to, date, t -> 0, false);
+    }
+
+    /**
+     * Conta le entità per bucket e ne accumula somma, minimo e massimo di un valore.
+     *
+     * @param granularity ampiezza dei bucket, non null
+     * @param from        prima data dell'intervallo, non null
+     * @param to          ultima data dell'intervallo, non null
+     * @param date        getter data entità, non null; il valore restituito non può essere null
+     * @param value       getter valore entità, non null
+     * @param <T>         tipo entità
+     * @return collector
+     */
+    public static <T> Collector<T, ?, TimeHistogram> summing(@NotNull Granularity granularity,
+                                                             @NotNull LocalDate from,
+                                                             @NotNull LocalDate to,
+                                                             @NotNull Function<T, LocalDate> date,
+                                                             @NotNull ToLongFunction<T> value) {
+        return entities(granularity, from, to, date, value, true);
+    }
+
+    private static <T> Collector<T, ?, TimeHistogram> entities(Granularity granularity,
+                                                               LocalDate from,
+                                                               LocalDate to,
+                                                               Function<T, LocalDate> date,
+                                                               ToLongFunction<T> value,
+                                                               boolean minMax) {
+        return Collector.of(
+                () -> new TimeHistogram(granularity, from, to, false, minMax),
+                (histogram, t) -> histogram.add(Objects.requireNonNull(date.apply(t), "Date must not be null."), value.applyAsLong(t)),
+                TimeHistogram::merge,
+                Collector.Characteristics.IDENTITY_FINISH,
+                Collector.Characteristics.UNORDERED);
+    }
+
+    /**
+     * Conta i periodi per bucket: ogni periodo è contato in tutti i bucket che tocca, estremi inclusi, con una differenza
+     * per periodo risolta alla fine. Minimo e massimo non sono disponibili.
+     *
+     * @param granularity ampiezza dei bucket, non null
+     * @param from        prima data dell'intervallo, non null
+     * @param to          ultima data dell'intervallo, non null
+     * @param start       getter inizio entità, non null; il valore restituito non può essere null
+     * @param end         getter fine entità, non null; il valore restituito può essere null per un periodo aperto
+     * @param value       getter valore sommato in ogni bucket toccato dal periodo, non null
+     * @param <T>         tipo entità
+     * @return collector
+     */
+    public static <T> Collector<T, ?, TimeHistogram> spreading(@NotNull Granularity granularity,
+                                                               @NotNull LocalDate from,
+                                                               @NotNull LocalDate to,
+                                                               @NotNull Function<T, LocalDate> start,
+                                                               @NotNull Function<T, LocalDate> end,
+                                                               @NotNull ToLongFunction<T> value) {
+        return Collector.of(
+                () -> new TimeHistogram(granularity, from, to, true, false),
+                (histogram, t) -> histogram.addPeriod(Objects.requireNonNull(start.apply(t), "Start must not be null."),
+                        end.apply(t), value.applyAsLong(t)),
+                TimeHistogram::merge,
+                TimeHistogram::resolve,
+                Collector.Characteristics.UNORDERED);
+    }
+
+    /**
+     * @return ampiezza dei bucket
+     */
+    public Granularity granularity() {
+        return granularity;
+    }
+
+    /**
+     * @return numero di bucket
+     */
+    public int size() {
+        return spread ? counts.length - 1 : counts.length;
+    }
+
+    /**
+     * @param date data, non null
+     * @return indice del bucket che contiene la data, -1 se fuori dall'intervallo
+     */
+    public int indexOf(@NotNull LocalDate date) {
+        long index = granularity.key(date) - firstKey;
+        return index >= 0 && index < size() ? (int) index : -1;
+    }
+
+    /**
+     * @param index indice del bucket
+     * @return primo giorno del bucket
+     */
+    public LocalDate bucketStart(int index) {
+        return granularity.start(firstKey + Objects.checkIndex(index, size()));
+    }
+
+    /**
+     * @param index indice del bucket
+     * @return ultimo giorno del bucket
+     */
+    public LocalDate bucketEnd(int index) {
+        return granularity.start(firstKey + Objects.checkIndex(index, size()) + 1).minusDays(1);
+    }
+
+    /**
+     * @param index indice del bucket
+     * @return mese del bucket, come {@link DateUtility#getYearMonth(int, int)}
+     */
+    public YearMonth yearMonth(int index) {
+        var start = bucketStart(index);
+        return DateUtility.getYearMonth(start.getYear(), start.getMonthValue());
+    }
+
+    /**
+     * @param index indice del bucket
+     * @return numero di entità del bucket
+     */
+    public long count(int index) {
+        return counts[Objects.checkIndex(index, size())];
+    }
+
+    /**
+     * @param index indice del bucket
+     * @return somma dei valori del bucket
+     */
+    public long sum(int index) {
+        return sums[Objects.checkIndex(index, size())];
+    }
+
+    /**
+     * @param index indice del bucket
+     * @return valore minimo del bucket, vuoto se il bucket è vuoto
+     * @throws IllegalStateException se l'istogramma non è stato costruito da {@link #summing}
+     */
+    public OptionalLong min(int index) {
+        checkMinMax();
+        return count(index) == 0 ? OptionalLong.empty() : OptionalLong.of(mins[index]);
+    }
+
+    /**
+     * @param index indice del bucket
+     * @return valore massimo del bucket, vuoto se il bucket è vuoto
+     * @throws IllegalStateException se l'istogramma non è stato costruito da {@link #summing}
+     */
+    public OptionalLong max(int index) {
+        checkMinMax();
+        return count(index) == 0 ? OptionalLong.empty() : OptionalLong.of(maxs[index]);
+    }
+
+    /**
+     * @return copia dei conteggi per bucket
+     */
+    public long[] counts() {
+        return Arrays.copyOf(counts, size());
+    }
+
+    /**
+     * @return copia delle somme per bucket
+     */
+    public long[] sums() {
+        return Arrays.copyOf(sums, size());
+    }
+
+    /**
+     * @return numero di entità, o di periodi, che non toccano l'intervallo
+     */
+    public long outOfRange() {
+        return outOfRange;
+    }
+
+    private void add(LocalDate date, long value) {
+        long index = granularity.key(date) - firstKey;
+        if (index < 0 || index >= counts.length) {
+            outOfRange++;
+            return;
+        }
+        int i = (int) index;
+        counts[i]++;
+        sums[i] += value;
+        if (minMax) {
+            mins[i] = Math.min(mins[i], value);
+            maxs[i] = Math.max(maxs[i], value);
+        }
+    }
+
+    private void addPeriod(LocalDate start, @Nullable LocalDate end, long value) {
+        if (end != null && start.isAfter(end))
+            throw new IllegalArgumentException("End period must be greater or equal start period.");
+        int size = size();
+        long first = granularity.key(start) - firstKey;
+        long last = end == null ? size - 1 : granularity.key(end) - firstKey;
+        if (first >= size || last < 0) {
+            outOfRange++;
+            return;
+        }
+        int from = (int) Math.max(first, 0);
+        int to = (int) Math.min(last, size - 1) + 1;
+        counts[from]++;
+        counts[to]--;
+        sums[from] += value;
+        sums[to] -= value;
+    }
+
+    private TimeHistogram merge(TimeHistogram other) {
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] += other.counts[i];
+            sums[i] += other.sums[i];
+        }
+        if (minMax) {
+            for (int i = 0; i < mins.length; i++) {
+                mins[i] = Math.min(mins[i], other.mins[i]);
+                maxs[i] = Math.max(maxs[i], other.maxs[i]);
+            }
+        }
+        outOfRange += other.outOfRange;
+        return this;
+    }
+
+    private TimeHistogram resolve() {
+        for (int i = 1; i < counts.length; i++) {
+            counts[i] += counts[i - 1];
+            sums[i] += sums[i - 1];
+        }
+        return this;
+    }
+
+    private void checkMinMax() {
+        if (!minMax)
+            throw new IllegalStateException("Min and max are only tracked by summing histograms.");
+    }
+
+    private static long[] filled(int size, long value) {
+        long[] array = new long[size];
+        Arrays.fill(array, value);
+        return array;
+    }
+
+}
@@ -1,15 +1,43 @@
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.function.DoubleUnaryOperator;
+import java.util.function.IntFunction;
+import java.util.function.IntToDoubleFunction;
+import java.util.function.IntToLongFunction;
+import java.util.function.IntUnaryOperator;
+import java.util.function.LongUnaryOperator;
 import java.util.function.UnaryOperator;
 import java.util.stream.Collector;
-import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 public class Utility {
 
+    private static final int PARALLEL_THRESHOLD = 1 << 13;
+    private static final long NESTED_LOOP_THRESHOLD = 64;
+    private static final int MAX_BITSET_ORDINAL = 1 << 16;
+    private static final int SORTED_MERGE_MAX_RATIO = 8;
+
     /**
      * Genera una collezione applicando a un valore di partenza una funzione che restituisce lo stesso tipo del valore iniziale.
+     * Ogni elemento dipende dal precedente, quindi la generazione è sequenziale: se l'elemento dipende solo dalla posizione
+     * usare {@link #generateCollection(int, IntFunction, Collector)}, per i tipi primitivi {@link #generateIntArray(int, IntUnaryOperator, int)}
+     * e analoghi.
      * <br>
      * Ad esempio:
      * {@code List<Integer> listZeroFill = utils.generateCollection(0, v -> 0, 97, Collectors.toList());}
@@ -30,7 +58,147 @@ public class Utility {
     }
 
     /**
-     * Restituisce la sottomappa di una mappa, dato un insieme di chiavi
+     * Genera una collezione applicando una funzione alla posizione di ogni elemento. A differenza di
+     * {@link #generateCollection(Object, UnaryOperator, int, Collector)} gli elementi sono indipendenti tra loro, quindi
+     * oltre una certa dimensione la generazione viene suddivisa sul fork-join pool comune; l'ordine degli elementi resta
+     * quello delle posizioni.
+     * <br>
+     * Ad esempio:
+     * {@code List<Integer> listSequence = Utility.generateCollection(97, i -> i * 2, Collectors.toList());}
+     *
+     * @param numberIteration numero totale di elementi
+     * @param generator       funzione che dalla posizione, da 0, restituisce l'elemento
+     * @param collector       collettore
+     * @param <T>             tipo elementi
+     * @param <A>             tipo accumulatore
+     * @param <Z>             collezione in uscita
+     * @return collezione
+     */
+    public static <T, A, Z> Z generateCollection(int numberIteration, IntFunction<T> generator, Collector<T, A, Z> collector) {
+        IntStream positions = IntStream.range(0, numberIteration);
+        if (numberIteration >= PARALLEL_THRESHOLD) {
+            positions = positions.parallel();
+        }
+        return positions.mapToObj(generator).collect(collector);
+    }
+
+    /**
+     * Genera un array di interi applicando a un valore di partenza una funzione, senza boxing.
+     *
+     * @param initialValue    valore iniziale
+     * @param toApply         funzione che dal valore precedente restituisce il successivo
+     * @param numberIteration numero totale di elementi, valore iniziale incluso
+     * @return array generato
+     */
+    public static int[] generateIntArray(int initialValue, IntUnaryOperator toApply, int numberIteration) {
+        int[] values = new int[numberIteration];
+        int value = initialValue;
+        for (int i = 0; i < numberIteration; i++) {
+            values[i] = value;
+            if (i + 1 < numberIteration) {
+                value = toApply.applyAsInt(value);
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Genera un array di interi applicando una funzione alla posizione di ogni elemento, in parallelo oltre una certa dimensione.
+     *
+     * @param numberIteration numero totale di elementi
+     * @param generator       funzione che dalla posizione, da 0, restituisce l'elemento
+     * @return array generato
+     */
+    public static int[] generateIntArray(int numberIteration, IntUnaryOperator generator) {
+        int[] values = new int[numberIteration];
+        if (numberIteration >= PARALLEL_THRESHOLD) {
+            Arrays.parallelSetAll(values, generator);
+        } else {
+            Arrays.setAll(values, generator);
+        }
+        return values;
+    }
+
+    /**
+     * Genera un array di long applicando a un valore di partenza una funzione, senza boxing.
+     *
+     * @param initialValue    valore iniziale
+     * @param toApply         funzione che dal valore precedente restituisce il successivo
+     * @param numberIteration numero totale di elementi, valore iniziale incluso
+     * @return array generato
+     */
+    public static long[] generateLongArray(long initialValue, LongUnaryOperator toApply, int numberIteration) {
+        long[] values = new long[numberIteration];
+        long value = initialValue;
+        for (int i = 0; i < numberIteration; i++) {
+            values[i] = value;
+            if (i + 1 < numberIteration) {
+                value = toApply.applyAsLong(value);
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Genera un array di long applicando una funzione alla posizione di ogni elemento, in parallelo oltre una certa dimensione.
+     *
+     * @param numberIteration numero totale di elementi
+     * @param generator       funzione che dalla posizione, da 0, restituisce l'elemento
+     * @return array generato
+     */
+    public static long[] generateLongArray(int numberIteration, IntToLongFunction generator) {
+        long[] values = new long[numberIteration];
+        if (numberIteration >= PARALLEL_THRESHOLD) {
+            Arrays.parallelSetAll(values, generator);
+        } else {
+            Arrays.setAll(values, generator);
+        }
+        return values;
+    }
+
+    /**
+     * Genera un array di double applicando a un valore di partenza una funzione, senza boxing.
+     *
+     * @param initialValue    valore iniziale
+     * @param toApply         funzione che dal valore precedente restituisce il successivo
+     * @param numberIteration numero totale di elementi, valore iniziale incluso
+     * @return array generato
+     */
+    public static double[] generateDoubleArray(double initialValue, DoubleUnaryOperator toApply, int numberIteration) {
+        double[] values = new double[numberIteration];
+        double value = initialValue;
+        for (int i = 0; i < numberIteration; i++) {
+            values[i] = value;
+            if (i + 1 < numberIteration) {
+                value = toApply.applyAsDouble(value);
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Genera un array di double applicando una funzione alla posizione di ogni elemento, in parallelo oltre una certa dimensione.
+     *
+     * @param numberIteration numero totale di elementi
+     * @param generator       funzione che dalla posizione, da 0, restituisce l'elemento
+     * @return array generato
+     */
+    public static double[] generateDoubleArray(int numberIteration, IntToDoubleFunction generator) {
+        double[] values = new double[numberIteration];
+        if (numberIteration >= PARALLEL_THRESHOLD) {
+            Arrays.parallelSetAll(values, generator);
+        } else {
+            Arrays.setAll(values, generator);
+        }
+        return values;
+    }
+
+    /**
+     * Restituisce la sottomappa di una mappa, dato un insieme di chiavi, con le chiavi della mappa. Scorre il lato più
+     * piccolo tra chiavi e mappa quando entrambi confrontano con {@code equals}, cioè per {@link HashMap} e
+     * {@link LinkedHashMap} con chiavi in un {@link HashSet} o in una {@link List}: con poche chiavi su una mappa
+     * grande il costo dipende solo dal numero di chiavi. Altrimenti, ad esempio con una {@link java.util.TreeMap} con
+     * comparatore, scorre la mappa e decide con il {@code contains} delle chiavi. I valori null vengono mantenuti.
      *
      * @param keys chiavi
      * @param map  mappa
@@ -39,13 +207,122 @@ public class Utility {
      * @return sottomappa
      */
     public static <T, K> Map<T, K> getSubMap(Collection<T> keys, Map<T, K> map) {
-        return map.entrySet().stream()
-                .filter(e -> keys.contains(e.getKey()))
-                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+        var measure = Instrumentation.start();
+        Map<T, K> subMap = new HashMap<>();
+        if (keys.size() <= map.size() && isEqualsBased(keys, map)) {
+            // le due uguaglianze coincidono, quindi la chiave cercata è uguale a quella della mappa
+            for (var key : keys) {
+                K value = map.get(key);
+                if (value != null || map.containsKey(key)) {
+                    subMap.put(key, value);
+                }
+            }
+        } else {
+            Collection<T> lookup = keys instanceof Set<T> ? keys : new HashSet<>(keys);
+            for (var entry : map.entrySet()) {
+                if (lookup.contains(entry.getKey())) {
+                    subMap.put(entry.getKey(), entry.getValue());
+                }
+            }
+        }
+        Instrumentation.stop(Instrumentation.Operation.GET_SUB_MAP, keys.size(), measure);
+        return subMap;
+    }
+
+    /**
+     * Restituisce una vista non modificabile della sottomappa di una mappa, dato un insieme di chiavi. La vista non copia
+     * nulla e riflette le modifiche successive di chiavi e mappa; ogni accesso costa come un accesso alla mappa e all'insieme.
+     *
+     * @param keys chiavi
+     * @param map  mappa
+     * @param <T>  tipo chiavi
+     * @param <K>  tipo valori
+     * @return vista della sottomappa
+     */
+    public static <T, K> Map<T, K> getSubMapView(Set<T> keys, Map<T, K> map) {
+        return new SubMapView<>(keys, map);
     }
 
     /**
-     * Controlla che due collezioni abbiano almeno un elemento in comune
+     * Restituisce le sottomappe di una mappa per più insiemi di chiavi. Se il totale delle chiavi supera la dimensione
+     * della mappa, la mappa viene scorsa una sola volta e ogni voce è assegnata a tutti gli insiemi che la richiedono;
+     * altrimenti ogni insieme passa da {@link #getSubMap(Collection, Map)}. Come in {@link #getSubMap(Collection, Map)},
+     * le chiavi sono confrontate con il {@code contains} di ogni insieme, ad esempio con il comparatore di un
+     * {@link java.util.TreeSet}: il risultato non dipende da quante chiavi ci sono.
+     *
+     * @param keySets insiemi di chiavi
+     * @param map     mappa
+     * @param <T>     tipo chiavi
+     * @param <K>     tipo valori
+     * @return sottomappe, nello stesso ordine degli insiemi di chiavi
+     */
+    public static <T, K> List<Map<T, K>> getSubMaps(List<? extends Collection<T>> keySets, Map<T, K> map) {
+        List<Map<T, K>> subMaps = new ArrayList<>(keySets.size());
+        long totalKeys = 0;
+        boolean equalsBased = true;
+        for (var keys : keySets) {
+            totalKeys += keys.size();
+            equalsBased &= isEqualsBased(keys, map);
+            subMaps.add(new HashMap<>());
+        }
+        if (totalKeys <= map.size()) {
+            for (int i = 0; i < keySets.size(); i++) {
+                subMaps.set(i, getSubMap(keySets.get(i), map));
+            }
+            return subMaps;
+        }
+        if (!equalsBased) {
+            // un HashMap di chiavi userebbe equals al posto del contains degli insiemi: ogni voce è cercata in ogni insieme
+            List<Collection<T>> lookups = new ArrayList<>(keySets.size());
+            for (var keys : keySets) {
+                lookups.add(keys instanceof Set<T> ? keys : new HashSet<>(keys));
+            }
+            for (var entry : map.entrySet()) {
+                for (int i = 0; i < lookups.size(); i++) {
+                    if (lookups.get(i).contains(entry.getKey())) {
+                        subMaps.get(i).put(entry.getKey(), entry.getValue());
+                    }
+                }
+            }
+            return subMaps;
+        }
+        // per ogni chiave, gli indici degli insiemi che la richiedono: [quanti, indice1, indice2, ...]
+        Map<T, int[]> owners = new HashMap<>();
+        for (int i = 0; i < keySets.size(); i++) {
+            for (var key : keySets.get(i)) {
+                int[] indexes = owners.get(key);
+                if (indexes == null) {
+                    owners.put(key, new int[]{1, i});
+                } else if (indexes[indexes[0]] != i) {
+                    if (indexes[0] + 1 == indexes.length) {
+                        indexes = Arrays.copyOf(indexes, indexes.length * 2);
+                        owners.put(key, indexes);
+                    }
+                    indexes[++indexes[0]] = i;
+                }
+            }
+        }
+        for (var entry : map.entrySet()) {
+            int[] indexes = owners.get(entry.getKey());
+            if (indexes != null) {
+                for (int j = 1; j <= indexes[0]; j++) {
+                    subMaps.get(indexes[j]).put(entry.getKey(), entry.getValue());
+                }
+            }
+        }
+        return subMaps;
+    }
+
+    /**
+     * Controlla che due collezioni abbiano almeno un elemento in comune. La strategia dipende da tipo e dimensione:
+     * <ul>
+     *     <li>due {@link SortedSet} con lo stesso ordinamento e dimensioni simili vengono fusi in una sola scansione;</li>
+     *     <li>se sono entrambe {@link Set} si scorre la più piccola cercando gli elementi nella più grande;</li>
+     *     <li>se una delle due è un {@link Set}, o sono entrambe piccole, si usa {@link Collections#disjoint};</li>
+     *     <li>enum e interi piccoli non negativi vengono confrontati tramite {@link BitSet};</li>
+     *     <li>altrimenti la collezione più piccola diventa un {@link HashSet} e la più grande viene scorsa una volta.</li>
+     * </ul>
+     * Per confrontare molte collezioni con lo stesso insieme di riferimento conviene un {@link IntersectionIndex}.
      *
      * @param collection_1 collezione 1
      * @param collection_2 collezione 2
@@ -53,7 +330,182 @@ public class Utility {
      * @return true se hanno almeno un elemento in comune, falso altrimenti
      */
     public static <T> boolean haveAtLeastOneElementInCommon(Collection<T> collection_1, Collection<T> collection_2) {
-        return !Collections.disjoint(collection_1, collection_2);
+        if (collection_1.isEmpty() || collection_2.isEmpty()) {
+            return false;
+        }
+        Collection<T> smaller = collection_1.size() <= collection_2.size() ? collection_1 : collection_2;
+        Collection<T> larger = smaller == collection_1 ? collection_2 : collection_1;
+        if (collection_1 instanceof SortedSet<T> sorted_1 && collection_2 instanceof SortedSet<T> sorted_2
+                && Objects.equals(sorted_1.comparator(), sorted_2.comparator())
+                && larger.size() / SORTED_MERGE_MAX_RATIO <= smaller.size()) {
+            return haveElementInCommonSorted(sorted_1, sorted_2);
+        }
+        if (collection_1 instanceof Set && collection_2 instanceof Set) {
+            // Collections.disjoint scorrerebbe sempre il secondo insieme, anche se è il più grande
+            for (var element : smaller) {
+                if (larger.contains(element)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        if (collection_1 instanceof Set || collection_2 instanceof Set
+                || (long) collection_1.size() * collection_2.size() <= NESTED_LOOP_THRESHOLD) {
+            return !Collections.disjoint(collection_1, collection_2);
+        }
+        BitSet ordinals = toOrdinals(smaller);
+        if (ordinals != null) {
+            Class<?> domain = domainOf(smaller.iterator().next());
+            for (var element : larger) {
+                int ordinal = ordinalOf(element, domain);
+                if (ordinal >= 0 && ordinals.get(ordinal)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        Set<T> lookup = new HashSet<>(smaller);
+        for (var element : larger) {
+            if (lookup.contains(element)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> boolean haveElementInCommonSorted(SortedSet<T> sorted_1, SortedSet<T> sorted_2) {
+        Comparator<? super T> comparator = sorted_1.comparator() != null
+                ? sorted_1.comparator()
+                : (a, b) -> ((Comparable<? super T>) a).compareTo(b);
+        Iterator<T> iterator_1 = sorted_1.iterator();
+        Iterator<T> iterator_2 = sorted_2.iterator();
+        T element_1 = iterator_1.next();
+        T element_2 = iterator_2.next();
+        while (true) {
+            int comparison = comparator.compare(element_1, element_2);
+            if (comparison == 0) {
+                return true;
+            }
+            if (comparison < 0) {
+                if (!iterator_1.hasNext()) {
+                    return false;
+                }
+                element_1 = iterator_1.next();
+            } else {
+                if (!iterator_2.hasNext()) {
+                    return false;
+                }
+                element_2 = iterator_2.next();
+            }
+        }
+    }
+
+    /**
+     * Converte in bitset una collezione di enum dello stesso tipo o di interi tra 0 e {@link #MAX_BITSET_ORDINAL}.
+     *
+     * @return bitset degli ordinali, null se la collezione non è adatta
+     */
+    private static BitSet toOrdinals(Collection<?> collection) {
+        Class<?> domain = domainOf(collection.iterator().next());
+        if (domain == null) {
+            return null;
+        }
+        BitSet ordinals = new BitSet();
+        for (var element : collection) {
+            int ordinal = ordinalOf(element, domain);
+            if (ordinal < 0) {
+                return null;
+            }
+            ordinals.set(ordinal);
+        }
+        return ordinals;
+    }
+
+    private static Class<?> domainOf(Object element) {
+        if (element instanceof Enum<?> constant) {
+            return constant.getDeclaringClass();
+        }
+        return element instanceof Integer ? Integer.class : null;
+    }
+
+    private static int ordinalOf(Object element, Class<?> domain) {
+        if (element instanceof Enum<?> constant && constant.getDeclaringClass() == domain) {
+            return constant.ordinal();
+        }
+        if (domain == Integer.class && element instanceof Integer value && value >= 0 && value <= MAX_BITSET_ORDINAL) {
+            return value;
+        }
+        return -1;
+    }
+
+    /**
+     * @return vero se chiavi e mappa confrontano gli elementi solo con equals e hashCode
+     */
+    private static boolean isEqualsBased(Collection<?> keys, Map<?, ?> map) {
+        return (map.getClass() == HashMap.class || map.getClass() == LinkedHashMap.class)
+                && (keys instanceof HashSet || keys instanceof List);
+    }
+
+    private static boolean containsKey(Map<?, ?> map, Object key) {
+        try {
+            return map.containsKey(key);
+        } catch (NullPointerException | ClassCastException e) {
+            // mappe che non ammettono la chiave, come TreeMap con null: la chiave non può esserci
+            return false;
+        }
+    }
+
+    /**
+     * Vista in sola lettura di una mappa ristretta a un insieme di chiavi
+     */
+    private static final class SubMapView<T, K> extends AbstractMap<T, K> {
+
+        private final Set<T> keys;
+        private final Map<T, K> map;
+
+        private SubMapView(Set<T> keys, Map<T, K> map) {
+            this.keys = keys;
+            this.map = map;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return keys.contains(key) && Utility.containsKey(map, key);
+        }
+
+        @Override
+        public K get(Object key) {
+            return containsKey(key) ? map.get(key) : null;
+        }
+
+        @Override
+        public Set<Entry<T, K>> entrySet() {
+            return new AbstractSet<>() {
+                @Override
+                public Iterator<Entry<T, K>> iterator() {
+                    if (keys.size() <= map.size()) {
+                        return keys.stream()
+                                .filter(key -> Utility.containsKey(map, key))
+                                .map(key -> (Entry<T, K>) new SimpleImmutableEntry<>(key, map.get(key)))
+                                .iterator();
+                    }
+                    return map.entrySet().stream()
+                            .filter(e -> keys.contains(e.getKey()))
+                            .map(e -> (Entry<T, K>) new SimpleImmutableEntry<>(e))
+                            .iterator();
+                }
+
+                @Override
+                public int size() {
+                    int size = 0;
+                    for (var ignored : this) {
+                        size++;
+                    }
+                    return size;
+                }
+            };
+        }
     }
 
 }
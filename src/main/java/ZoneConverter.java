@@ -0,0 +1,266 @@
+import jakarta.validation.constraints.NotNull;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Conversione tra secondi dall'epoch UTC e secondi dall'epoch in ora locale di un fuso orario, con le transizioni
+ * dell'ora legale precalcolate in array primitivi per un intervallo di anni. Fuori dall'intervallo la conversione passa
+ * per {@link ZoneRules}, con lo stesso risultato.
+ * <br>
+ * Le ore locali che cadono in un salto in avanti o in una sovrapposizione sono risolte come
+ * {@link ZonedDateTime#ofLocal(LocalDateTime, ZoneId, ZoneOffset)} senza offset preferito: si usa sempre l'offset
+ * precedente la transizione, quindi le 02:30 del giorno del cambio all'ora legale diventano le 03:30 e le 02:30 del giorno
+ * del ritorno all'ora solare sono la prima delle due.
+ * <pre>
+ *     {@code long utc = ZoneConverter.getDefault().toEpochSecond(locale);}
+ *     {@code long[] locali = ZoneConverter.getDefault().toLocalEpochSeconds(istanti);}
+ * </pre>
+ */
+public final class ZoneConverter {
+
+    private static final ZoneConverter DEFAULT = new ZoneConverter(DateUtility.getDefaultTimezone(), 1900, 2199);
+
+    private final ZoneId zone;
+    private final ZoneRules rules;
+    private final long firstEpochSecond;
+    private final long lastEpochSecond;
+    private final long[] transitions;
+    private final long[] localStarts;
+    private final long[] localEnds;
+    private final int[] offsets;
+
+    private ZoneConverter(ZoneId zone, int firstYear, int lastYear) {
+        if (firstYear > lastYear) {
+            throw new IllegalArgumentException("Last year must be greater or equal first year.");
+        }
+        this.zone = zone;
+        this.rules = zone.getRules();
+        this.firstEpochSecond = LocalDate.of(firstYear, 1, 1).toEpochDay() * EpochDateTimes.SECONDS_PER_DAY;
+        this.lastEpochSecond = LocalDate.of(lastYear + 1, 1, 1).toEpochDay() * EpochDateTimes.SECONDS_PER_DAY;
+        // un giorno di margine, per le ore locali vicine ai bordi
+        Instant from = Instant.ofEpochSecond(firstEpochSecond - EpochDateTimes.SECONDS_PER_DAY);
+        long to = lastEpochSecond + EpochDateTimes.SECONDS_PER_DAY;
+        List<ZoneOffsetTransition> found = new ArrayList<>();
+        for (var t = rules.nextTransition(from); t != null && t.toEpochSecond() < to; t = rules.nextTransition(t.getInstant())) {
+            found.add(t);
+        }
+        int size = found.size();
+        this.transitions = new long[size];
+        this.localStarts = new long[size];
+        this.localEnds = new long[size];
+        this.offsets = new int[size + 1];
+        offsets[0] = rules.getOffset(from).getTotalSeconds();
+        for (int i = 0; i < size; i++) {
+            var t = found.get(i);
+            int before = t.getOffsetBefore().getTotalSeconds();
+            int after = t.getOffsetAfter().getTotalSeconds();
+            transitions[i] = t.toEpochSecond();
+            localStarts[i] = transitions[i] + Math.min(before, after);
+            localEnds[i] = transitions[i] + Math.max(before, after);
+            offsets[i + 1] = after;
+        }
+    }
+
+    /**
+     * Costruisce il convertitore per un fuso orario e un intervallo di anni, estremi inclusi.
+     *
+     * @param zone      fuso orario, non null
+     * @param firstYear primo anno
+     * @param lastYear  ultimo anno
+     * @return convertitore
+     */
+    public static ZoneConverter of(@NotNull ZoneId zone, int firstYear, int lastYear) {
+        return new ZoneConverter(zone, firstYear, lastYear);
+    }
+
+    /**
+     * Restituisce il convertitore condiviso per il fuso orario di {@link DateUtility#getDefaultTimezone()}, che copre gli
+     * anni dal 1900 al 2199.
+     *
+     * @return convertitore di default
+     */
+    public static ZoneConverter getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * @return fuso orario
+     */
+    public ZoneId zone() {
+        return zone;
+    }
+
+    /**
+     * @param epochSecond secondi dall'epoch UTC
+     * @return offset in secondi del fuso orario in quell'istante
+     */
+    public int offsetSeconds(long epochSecond) {
+        if (epochSecond < firstEpochSecond || epochSecond >= lastEpochSecond) {
+            return rules.getOffset(Instant.ofEpochSecond(epochSecond)).getTotalSeconds();
+        }
+        return offsets[countAtOrBefore(transitions, epochSecond)];
+    }
+
+    /**
+     * @param epochSecond secondi dall'epoch UTC
+     * @return secondi dall'epoch in ora locale, come {@code LocalDateTime.toEpochSecond(ZoneOffset.UTC)}
+     */
+    public long toLocalEpochSecond(long epochSecond) {
+        return epochSecond + offsetSeconds(epochSecond);
+    }
+
+    /**
+     * @param localEpochSecond secondi dall'epoch in ora locale
+     * @return secondi dall'epoch UTC; salti e sovrapposizioni usano l'offset precedente la transizione
+     */
+    public long toEpochSecond(long localEpochSecond) {
+        if (localEpochSecond < firstEpochSecond || localEpochSecond >= lastEpochSecond) {
+            var local = LocalDateTime.ofEpochSecond(localEpochSecond, 0, ZoneOffset.UTC);
+            return ZonedDateTime.ofLocal(local, zone, null).toEpochSecond();
+        }
+        return localEpochSecond - localOffset(countAtOrBefore(localStarts, localEpochSecond), localEpochSecond);
+    }
+
+    /**
+     * @param instant istante, non null
+     * @return date-time in ora locale, troncato al secondo
+     */
+    public LocalDateTime toLocalDateTime(@NotNull Instant instant) {
+        return LocalDateTime.ofEpochSecond(toLocalEpochSecond(instant.getEpochSecond()), 0, ZoneOffset.UTC);
+    }
+
+    /**
+     * @param dateTime date-time in ora locale, non null
+     * @return istante, troncato al secondo
+     */
+    public Instant toInstant(@NotNull LocalDateTime dateTime) {
+        return Instant.ofEpochSecond(toEpochSecond(dateTime.toEpochSecond(ZoneOffset.UTC)));
+    }
+
+    /**
+     * Versione massiva di {@link #toLocalEpochSecond(long)}.
+     *
+     * @param epochSeconds secondi dall'epoch UTC, non null
+     * @return secondi dall'epoch in ora locale, nuovo array
+     */
+    public long[] toLocalEpochSeconds(@NotNull long[] epochSeconds) {
+        long[] result = new long[epochSeconds.length];
+        toLocalEpochSeconds(epochSeconds, 0, result, 0, epochSeconds.length);
+        return result;
+    }
+
+    /**
+     * Versione massiva di {@link #toLocalEpochSecond(long)}. Finché i valori restano tra le stesse due transizioni non si
+     * ripete la ricerca, quindi ingressi ordinati o raggruppati costano un confronto per elemento.
+     *
+     * @param src    secondi dall'epoch UTC, non null
+     * @param srcOff posizione iniziale in src
+     * @param dst    destinazione dei secondi dall'epoch in ora locale, non null; può coincidere con src
+     * @param dstOff posizione iniziale in dst
+     * @param length numero di valori
+     */
+    public void toLocalEpochSeconds(@NotNull long[] src, int srcOff, @NotNull long[] dst, int dstOff, int length) {
+        long segmentStart = 1;
+        long segmentEnd = 0;
+        int offset = 0;
+        for (int i = 0; i < length; i++) {
+            long epochSecond = src[srcOff + i];
+            if (epochSecond < segmentStart || epochSecond >= segmentEnd) {
+                if (epochSecond < firstEpochSecond || epochSecond >= lastEpochSecond) {
+                    dst[dstOff + i] = toLocalEpochSecond(epochSecond);
+                    continue;
+                }
+                int segment = countAtOrBefore(transitions, epochSecond);
+                segmentStart = segment == 0 ? firstEpochSecond : transitions[segment - 1];
+                segmentEnd = segment == transitions.length ? lastEpochSecond : transitions[segment];
+                offset = offsets[segment];
+            }
+            dst[dstOff + i] = epochSecond + offset;
+        }
+    }
+
+    /**
+     * Versione massiva di {@link #toEpochSecond(long)}.
+     *
+     * @param localEpochSeconds secondi dall'epoch in ora locale, non null
+     * @return secondi dall'epoch UTC, nuovo array
+     */
+    public long[] toEpochSeconds(@NotNull long[] localEpochSeconds) {
+        long[] result = new long[localEpochSeconds.length];
+        toEpochSeconds(localEpochSeconds, 0, result, 0, localEpochSeconds.length);
+        return result;
+    }
+
+    /**
+     * Versione massiva di {@link #toEpochSecond(long)}, con la stessa riutilizzazione dell'intervallo tra due transizioni di
+     * {@link #toLocalEpochSeconds(long[], int, long[], int, int)}.
+     *
+     * @param src    secondi dall'epoch in ora locale, non null
+     * @param srcOff posizione iniziale in src
+     * @param dst    destinazione dei secondi dall'epoch UTC, non null; può coincidere con src
+     * @param dstOff posizione iniziale in dst
+     * @param length numero di valori
+     */
+    public void toEpochSeconds(@NotNull long[] src, int srcOff, @NotNull long[] dst, int dstOff, int length) {
+        long segmentStart = 1;
+        long segmentEnd = 0;
+        int offset = 0;
+        for (int i = 0; i < length; i++) {
+            long local = src[srcOff + i];
+            if (local < segmentStart || local >= segmentEnd) {
+                if (local < firstEpochSecond || local >= lastEpochSecond) {
+                    dst[dstOff + i] = toEpochSecond(local);
+                    continue;
+                }
+                // l'intervallo riutilizzabile va dalla fine di una transizione all'inizio della successiva, oppure è la
+                // transizione stessa
+                int index = countAtOrBefore(localStarts, local);
+                offset = localOffset(index, local);
+                if (index > 0 && local < localEnds[index - 1]) {
+                    segmentStart = localStarts[index - 1];
+                    segmentEnd = localEnds[index - 1];
+                } else {
+                    segmentStart = index == 0 ? firstEpochSecond : localEnds[index - 1];
+                    segmentEnd = index == localStarts.length ? lastEpochSecond : localStarts[index];
+                }
+            }
+            dst[dstOff + i] = local - offset;
+        }
+    }
+
+    /**
+     * @param index numero di transizioni la cui finestra locale inizia prima o in corrispondenza dell'ora locale
+     * @return offset da sottrarre all'ora locale
+     */
+    private int localOffset(int index, long local) {
+        if (index == 0) {
+            return offsets[0];
+        }
+        // dentro un salto o una sovrapposizione vale l'offset precedente la transizione
+        return local < localEnds[index - 1] ? offsets[index - 1] : offsets[index];
+    }
+
+    private static int countAtOrBefore(long[] sorted, long key) {
+        int lo = 0;
+        int hi = sorted.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (sorted[mid] <= key) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+}
@@ -0,0 +1,22 @@
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class BusinessCalendarTest {
+
+    /**
+     * Il 4 ottobre è festivo solo dal 2026: nel 2021 e nel 2027 cade di lunedì.
+     */
+    @Test
+    void saintFrancisIsHolidaySince2026() {
+        var calendar = BusinessCalendar.getDefault();
+
+        assertEquals(true, calendar.isWorkingDay(LocalDate.of(2021, 10, 4)));
+        assertEquals(false, calendar.isWorkingDay(LocalDate.of(2027, 10, 4)));
+        assertEquals(20, calendar.workingDaysInMonth(10, 2027));
+        assertEquals(LocalDate.of(2027, 10, 5), calendar.nextWorkingDay(LocalDate.of(2027, 10, 1)));
+    }
+
+}
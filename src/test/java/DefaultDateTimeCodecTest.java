@@ -0,0 +1,36 @@
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class DefaultDateTimeCodecTest {
+
+    private static final byte[] TEXT = "2024-03-01 10:00:00".getBytes(StandardCharsets.US_ASCII);
+
+    /**
+     * Il limite del buffer vale allo stesso modo per buffer heap e diretti: i byte oltre il limite non si leggono.
+     */
+    @Test
+    void parseByteBufferRespectsLimit() {
+        var heap = ByteBuffer.wrap(TEXT).limit(10);
+        var direct = ByteBuffer.allocateDirect(TEXT.length).put(TEXT).flip().limit(10);
+
+        assertThrows(DateTimeParseException.class, () -> DefaultDateTimeCodec.parse(heap, 0));
+        assertThrows(DateTimeParseException.class, () -> DefaultDateTimeCodec.parse(direct, 0));
+    }
+
+    @Test
+    void parseByteBuffer() {
+        long expected = LocalDateTime.of(2024, 3, 1, 10, 0).toEpochSecond(ZoneOffset.UTC);
+
+        assertEquals(expected, DefaultDateTimeCodec.parse(ByteBuffer.wrap(TEXT), 0));
+        assertEquals(expected, DefaultDateTimeCodec.parse(ByteBuffer.allocateDirect(TEXT.length).put(TEXT).flip(), 0));
+    }
+
+}
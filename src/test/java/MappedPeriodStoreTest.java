@@ -0,0 +1,45 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+class MappedPeriodStoreTest {
+
+    @TempDir
+    Path directory;
+
+    /**
+     * L'ultimo blocco della parte ordinata è parziale e finisce prima del periodo: il salto del blocco non deve superare
+     * la parte ordinata e perdere la coda.
+     */
+    @Test
+    void queriesReachTailAfterPartialLastBlock() throws IOException {
+        try (var store = MappedPeriodStore.open(directory.resolve("store.periods"))) {
+            for (int id = 0; id < 1500; id++) {
+                store.append(id, 0, 10);
+            }
+            store.compact();
+            store.append(9999, 150, 160);
+
+            assertArrayEquals(new long[]{9999}, store.intersectingIds(100, 200).toArray());
+            assertArrayEquals(new long[]{9999}, store.withinIds(100, 200).toArray());
+        }
+    }
+
+    @Test
+    void queriesReachTailAfterFullLastBlock() throws IOException {
+        try (var store = MappedPeriodStore.open(directory.resolve("store.periods"))) {
+            for (int id = 0; id < 2048; id++) {
+                store.append(id, 0, 10);
+            }
+            store.compact();
+            store.append(9999, 150, 160);
+
+            assertArrayEquals(new long[]{9999}, store.intersectingIds(100, 200).toArray());
+        }
+    }
+
+}
@@ -0,0 +1,28 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class UtilityTest {
+
+    /**
+     * Le chiavi di un TreeSet con comparatore si confrontano con il comparatore, qualunque sia il numero di chiavi.
+     */
+    @Test
+    void getSubMapsKeepsKeyCollectionSemantics() {
+        Map<String, Integer> map = new HashMap<>(Map.of("a", 1));
+        var oneKey = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+        oneKey.add("A");
+        var twoKeys = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+        twoKeys.addAll(Set.of("A", "B"));
+
+        assertEquals(List.of(Map.of("a", 1)), Utility.getSubMaps(List.of(oneKey), map));
+        assertEquals(List.of(Map.of("a", 1)), Utility.getSubMaps(List.of(twoKeys), map));
+    }
+
+}